@@ -30,6 +30,7 @@ import java.io.OutputStream;
  */
 public class BShellConfiguration {
     private final long treeParsingTimeout;
+    private final EvaluatorMode mode;
     private final Evaluator evaluator;
     private final InputStream inputStream;
     private final OutputStream outputStream;
@@ -41,6 +42,7 @@ public class BShellConfiguration {
         this.isDebug = isDebug;
         this.isDumb = isDumb;
         this.treeParsingTimeout = treeParsingTimeout;
+        this.mode = mode;
         this.evaluator = createEvaluator(mode);
         this.inputStream = inputStream;
         this.outputStream = outputStream;
@@ -57,10 +59,28 @@ public class BShellConfiguration {
             return new EvaluatorBuilder()
                     .treeParser(TrialTreeParser.defaultParser(treeParsingTimeout))
                     .build();
+        } else if (mode == EvaluatorMode.PARALLEL) {
+            return new EvaluatorBuilder()
+                    .parallelTreeParser(treeParsingTimeout)
+                    .build();
+        } else if (mode == EvaluatorMode.ADAPTIVE) {
+            return new EvaluatorBuilder()
+                    .adaptiveTreeParser(treeParsingTimeout)
+                    .build();
         }
         throw new RuntimeException("Unknown mode given.");
     }
 
+    /**
+     * Creates a new evaluator based on the config.
+     * The new evaluator is independent of the evaluator set by the user.
+     *
+     * @return Created evaluator.
+     */
+    public Evaluator createEvaluator() {
+        return createEvaluator(mode);
+    }
+
     /**
      * Get the evaluator set by the user.
      *
@@ -110,7 +130,15 @@ public class BShellConfiguration {
      * Modes to create the evaluator.
      */
     public enum EvaluatorMode {
-        DEFAULT
+        DEFAULT,
+        /**
+         * Parser trials are raced against each other.
+         */
+        PARALLEL,
+        /**
+         * Parser trials that succeeded most often for similar inputs are tried first.
+         */
+        ADAPTIVE
     }
 
     /**
@@ -34,12 +34,15 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.function.BooleanSupplier;
 
+import static io.ballerina.shell.cli.PropertiesLoader.COMMAND_CACHE;
 import static io.ballerina.shell.cli.PropertiesLoader.COMMAND_DCLNS;
 import static io.ballerina.shell.cli.PropertiesLoader.COMMAND_DEBUG;
 import static io.ballerina.shell.cli.PropertiesLoader.COMMAND_EXIT;
 import static io.ballerina.shell.cli.PropertiesLoader.COMMAND_HELP;
 import static io.ballerina.shell.cli.PropertiesLoader.COMMAND_IMPORTS;
+import static io.ballerina.shell.cli.PropertiesLoader.COMMAND_PREFIX;
 import static io.ballerina.shell.cli.PropertiesLoader.COMMAND_RESET;
 import static io.ballerina.shell.cli.PropertiesLoader.COMMAND_VARS;
 import static io.ballerina.shell.cli.PropertiesLoader.HEADER_FILE;
@@ -54,7 +57,12 @@ public class BallerinaShell {
 
     protected final BShellConfiguration configuration;
     protected final TerminalAdapter terminal;
-    protected final Evaluator evaluator;
+    protected volatile Evaluator evaluator;
+    /**
+     * Evaluator that is initialized in the background while the shell is used.
+     * It is swapped in when the shell is reset.
+     */
+    protected Evaluator standbyEvaluator;
     protected final CommandHandler commandHandler;
     protected boolean isRunning;
 
@@ -74,22 +82,12 @@ public class BallerinaShell {
                 TerminalAdapter.GREEN);
         terminal.println(FileUtils.readResource(PropertiesLoader.getProperty(HEADER_FILE)));
 
+        // Initialize in the background so that the prompt is shown immediately.
+        // Input read meanwhile is evaluated once the initialization is done.
+        evaluator.initializeInBackground();
+        boolean initialized = false;
         Instant start = Instant.now();
-        // Initialize. This must not fail.
-        // If this fails, an error would be directly thrown.
-        try {
-            evaluator.initialize();
-        } catch (BallerinaShellException e) {
-            evaluator.diagnostics().forEach(this::outputDiagnostic);
-            terminal.println("\nShell Initialization Failed!!!");
-            return;
-        }
-
-        Instant end = Instant.now();
-        // Output a warning if initialization took too long.
-        if (Duration.between(start, end).getSeconds() > INIT_WARNING_THRESH_S) {
-            terminal.warn("Compiler initialization took longer than expected.");
-        }
+        Instant end = start;
 
         while (isRunning) {
             Duration previousDuration = Duration.between(start, end);
@@ -98,6 +96,14 @@ public class BallerinaShell {
 
             String source = terminal.readLine(leftPrompt, rightPrompt).trim();
 
+            if (!initialized) {
+                if (!awaitInitialization()) {
+                    return;
+                }
+                initialized = true;
+                prepareStandbyEvaluator();
+            }
+
             start = Instant.now();
             try {
                 if (!commandHandler.handle(source)) {
@@ -118,6 +124,44 @@ public class BallerinaShell {
         }
     }
 
+    /**
+     * Compiles the input in the background so that evaluating it is faster.
+     * Commands and blank inputs are ignored.
+     *
+     * @param source  Input that is being typed.
+     * @param isStale Whether the input changed since, so that the compilation can be given up.
+     */
+    public void speculate(String source, BooleanSupplier isStale) {
+        String trimmedSource = source.trim();
+        if (trimmedSource.isEmpty() || trimmedSource.startsWith(PropertiesLoader.getProperty(COMMAND_PREFIX))) {
+            return;
+        }
+        evaluator.speculate(trimmedSource, isStale);
+    }
+
+    /**
+     * Waits until the evaluator is initialized.
+     * This must not fail. If this fails, the shell cannot continue.
+     *
+     * @return Whether the initialization was successful.
+     */
+    protected boolean awaitInitialization() {
+        Instant start = Instant.now();
+        try {
+            evaluator.awaitInitialization();
+        } catch (BallerinaShellException e) {
+            evaluator.diagnostics().forEach(this::outputDiagnostic);
+            terminal.println("\nShell Initialization Failed!!!");
+            return false;
+        }
+
+        // Output a warning if waiting for initialization took too long.
+        if (Duration.between(start, Instant.now()).getSeconds() > INIT_WARNING_THRESH_S) {
+            terminal.warn("Compiler initialization took longer than expected.");
+        }
+        return true;
+    }
+
     /**
      * Output a diagnostic to the terminal.
      *
@@ -164,11 +208,13 @@ public class BallerinaShell {
         commandHandler.attach(PropertiesLoader.getProperty(COMMAND_RESET), new ResetStateCommand(this));
         commandHandler.attach(PropertiesLoader.getProperty(COMMAND_DEBUG), new ToggleDebugCommand(this));
         commandHandler.attach(PropertiesLoader.getProperty(COMMAND_VARS),
-                new StringListCommand(this, evaluator::availableVariables));
+                new StringListCommand(this, () -> evaluator.availableVariables()));
         commandHandler.attach(PropertiesLoader.getProperty(COMMAND_IMPORTS),
-                new StringListCommand(this, evaluator::availableImports));
+                new StringListCommand(this, () -> evaluator.availableImports()));
         commandHandler.attach(PropertiesLoader.getProperty(COMMAND_DCLNS),
-                new StringListCommand(this, evaluator::availableModuleDeclarations));
+                new StringListCommand(this, () -> evaluator.availableModuleDeclarations()));
+        commandHandler.attach(PropertiesLoader.getProperty(COMMAND_CACHE),
+                new StringListCommand(this, () -> evaluator.cacheStatistics()));
         return commandHandler;
     }
 
@@ -184,15 +230,53 @@ public class BallerinaShell {
         this.configuration.toggleDebug();
     }
 
+    /**
+     * Resets the shell by swapping in the standby evaluator.
+     * The evaluator is reset in place if there is no usable standby.
+     * Another standby is prepared afterwards.
+     */
     public void reset() {
+        Evaluator previousEvaluator = this.evaluator;
         try {
-            this.evaluator.reset();
-            this.evaluator.initialize();
-        } catch (BallerinaShellException e) {
-            throw new RuntimeException(e);
+            if (standbyEvaluator == null) {
+                throw new IllegalStateException("No standby evaluator.");
+            }
+            standbyEvaluator.awaitInitialization();
+            this.evaluator = standbyEvaluator;
+            // Release the memory and the threads held by the previous session.
+            previousEvaluator.reset();
+            previousEvaluator.shutdown();
+        } catch (BallerinaShellException | IllegalStateException e) {
+            try {
+                this.evaluator.reset();
+                this.evaluator.initialize();
+            } catch (BallerinaShellException ex) {
+                throw new RuntimeException(ex);
+            }
+        } finally {
+            prepareStandbyEvaluator();
+        }
+    }
+
+    /**
+     * Releases the threads held by the evaluators.
+     * The shell must not be run afterwards.
+     */
+    public void shutdown() {
+        evaluator.shutdown();
+        if (standbyEvaluator != null) {
+            standbyEvaluator.shutdown();
         }
     }
 
+    /**
+     * Creates a new evaluator and starts initializing it in the background.
+     */
+    protected void prepareStandbyEvaluator() {
+        this.standbyEvaluator = configuration.createEvaluator();
+        this.standbyEvaluator.initializeInBackground();
+    }
+
     public void exit() {
         this.isRunning = false;
     }
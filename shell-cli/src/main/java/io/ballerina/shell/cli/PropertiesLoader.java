@@ -44,6 +44,7 @@ public class PropertiesLoader {
     public static final String COMMAND_VARS = "commands.vars";
     public static final String COMMAND_IMPORTS = "commands.imports";
     public static final String COMMAND_DCLNS = "commands.dclns";
+    public static final String COMMAND_CACHE = "commands.cache";
 
     public static final String HELP_DESCRIPTION_POSTFIX = "commands.help.ps.description";
     public static final String HELP_EXAMPLE_POSTFIX = "commands.help.ps.example";
@@ -22,10 +22,10 @@ package io.ballerina.shell.cli;
 import io.ballerina.shell.cli.jline.DumbJlineTerminalAdapter;
 import io.ballerina.shell.cli.jline.JlineSimpleCompleter;
 import io.ballerina.shell.cli.jline.JlineTerminalAdapter;
+import io.ballerina.shell.cli.jline.SpeculativeHighlighter;
 import org.jline.reader.Completer;
 import org.jline.reader.LineReader;
 import org.jline.reader.LineReaderBuilder;
-import org.jline.reader.impl.DefaultHighlighter;
 import org.jline.reader.impl.DefaultParser;
 import org.jline.terminal.Terminal;
 import org.jline.terminal.TerminalBuilder;
@@ -45,6 +45,7 @@ public class ReplShellApplication {
     public static void execute(BShellConfiguration configuration) throws Exception {
         TerminalAdapter terminalAdapter;
         Terminal terminal;
+        SpeculativeHighlighter highlighter = null;
 
         if (configuration.isDumb()) {
             terminal = TerminalBuilder.builder()
@@ -63,7 +64,7 @@ public class ReplShellApplication {
             terminalAdapter = new DumbJlineTerminalAdapter(lineReader);
         } else {
             Completer completer = new JlineSimpleCompleter();
-            DefaultHighlighter highlighter = new DefaultHighlighter();
+            highlighter = new SpeculativeHighlighter();
 
             DefaultParser parser = new DefaultParser();
             parser.setEofOnUnclosedBracket(DefaultParser.Bracket.CURLY,
@@ -83,7 +84,24 @@ public class ReplShellApplication {
         }
 
         BallerinaShell shell = new BallerinaShell(configuration, terminalAdapter);
-        shell.run();
+        if (highlighter == null) {
+            try {
+                shell.run();
+            } finally {
+                shell.shutdown();
+            }
+            return;
+        }
+
+        // Compile the input in the background while it is being typed.
+        SpeculativeCompiler speculativeCompiler = new SpeculativeCompiler(shell::speculate);
+        highlighter.setBufferListener(speculativeCompiler::bufferChanged);
+        try {
+            shell.run();
+        } finally {
+            speculativeCompiler.shutdown();
+            shell.shutdown();
+        }
     }
 
     public static void main(String... args) throws Exception {
@@ -0,0 +1,104 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.cli;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Compiles the input that is being typed in the background.
+ * Compilation starts once the user stops typing for a short while,
+ * so an evaluation of the same input only has to execute it.
+ * Compilation that was not started yet is cancelled whenever the input changes.
+ * A compilation that already started is given a check of whether the input changed since,
+ * which is done between its phases so that a stale compilation does not keep the evaluator.
+ * A phase that already started (eg: the compiler itself) cannot be interrupted and is left to complete.
+ */
+public class SpeculativeCompiler {
+    private static final long DEBOUNCE_DELAY_MS = 200;
+
+    private final BiConsumer<String, BooleanSupplier> speculation;
+    private final ScheduledExecutorService executor;
+    private final AtomicLong bufferGeneration;
+    private ScheduledFuture<?> pendingSpeculation;
+    private String lastBuffer;
+
+    public SpeculativeCompiler(BiConsumer<String, BooleanSupplier> speculation) {
+        this.speculation = speculation;
+        this.bufferGeneration = new AtomicLong(0);
+        this.executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "shell-speculative-compiler");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Notifies that the input buffer was redisplayed.
+     * Stale work is cancelled and the new buffer is scheduled to be compiled.
+     *
+     * @param buffer Current input buffer.
+     */
+    public synchronized void bufferChanged(String buffer) {
+        if (buffer.equals(lastBuffer)) {
+            // Redisplay without a change. (eg: cursor movement)
+            return;
+        }
+        lastBuffer = buffer;
+        long generation = bufferGeneration.incrementAndGet();
+        if (pendingSpeculation != null) {
+            pendingSpeculation.cancel(false);
+        }
+        pendingSpeculation = executor.schedule(() -> speculate(buffer, generation),
+                DEBOUNCE_DELAY_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Compiles the buffer if it is still the latest one.
+     * The compilation is given a check of whether the buffer changed after it was scheduled.
+     *
+     * @param buffer     Buffer to compile.
+     * @param generation Generation of the buffer.
+     */
+    private void speculate(String buffer, long generation) {
+        BooleanSupplier isStale = () -> bufferGeneration.get() != generation;
+        if (isStale.getAsBoolean()) {
+            return;
+        }
+        try {
+            speculation.accept(buffer, isStale);
+        } catch (RuntimeException ignored) {
+            // Speculation failures are silently ignored.
+            // The same error would be reported when the input is evaluated.
+        }
+    }
+
+    /**
+     * Stops the background compilation.
+     */
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
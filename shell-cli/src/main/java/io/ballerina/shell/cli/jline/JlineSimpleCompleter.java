@@ -20,6 +20,7 @@ package io.ballerina.shell.cli.jline;
 
 import io.ballerina.shell.cli.PropertiesLoader;
 import io.ballerina.shell.cli.utils.FileUtils;
+import io.ballerina.shell.invoker.classload.cache.ModuleRepositoryIndex;
 import org.jline.reader.Candidate;
 import org.jline.reader.Completer;
 import org.jline.reader.LineReader;
@@ -39,15 +40,26 @@ import static io.ballerina.shell.cli.PropertiesLoader.TOPICS_FILE;
 /**
  * A simple completer to give completions based on the input line.
  * If the input starts with /, built-in commands are given.
+ * Modules of the distribution repository are given for imports,
+ * and their public symbols for words with a module prefix. (eg: int:ab)
  * Otherwise keyword completion is given.
  */
 public class JlineSimpleCompleter implements Completer {
+    private static final String IMPORT_KEYWORD = "import ";
+    private static final String MODULE_SEPARATOR = ":";
+
     private final StringsCompleter topicsCompleter;
     private final StringsCompleter topicsOptionCompleter;
     private final StringsCompleter commandsCompleter;
     private final StringsCompleter keywordsCompleter;
+    private final ModuleRepositoryIndex moduleIndex;
 
     public JlineSimpleCompleter() {
+        this(ModuleRepositoryIndex.sharedIndex());
+    }
+
+    public JlineSimpleCompleter(ModuleRepositoryIndex moduleIndex) {
+        this.moduleIndex = moduleIndex;
         List<String> topicsKeywords = FileUtils.readKeywords(PropertiesLoader.getProperty(TOPICS_FILE));
         List<String> commandsKeywords = FileUtils.readKeywords(PropertiesLoader.getProperty(COMMANDS_FILE));
         List<String> codeKeywords = FileUtils.readKeywords(PropertiesLoader.getProperty(KEYWORDS_FILE));
@@ -69,6 +81,19 @@ public class JlineSimpleCompleter implements Completer {
             }
         } else if (line.line().trim().startsWith(PropertiesLoader.getProperty(COMMAND_PREFIX))) {
             commandsCompleter.complete(reader, line, candidates);
+        } else if (line.line().trim().startsWith(IMPORT_KEYWORD) && line.wordIndex() == 1) {
+            for (ModuleRepositoryIndex.IndexedModule module : moduleIndex.modules()) {
+                candidates.add(new Candidate(module.toString()));
+            }
+        } else if (line.word().contains(MODULE_SEPARATOR)) {
+            String prefix = line.word().substring(0, line.word().indexOf(MODULE_SEPARATOR));
+            for (ModuleRepositoryIndex.IndexedModule module : moduleIndex.modules()) {
+                if (module.defaultPrefix().equals(prefix)) {
+                    for (String symbol : module.getPublicSymbols()) {
+                        candidates.add(new Candidate(prefix + MODULE_SEPARATOR + symbol));
+                    }
+                }
+            }
         } else {
             keywordsCompleter.complete(reader, line, candidates);
         }
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.cli.jline;
+
+import org.jline.reader.LineReader;
+import org.jline.reader.impl.DefaultHighlighter;
+import org.jline.utils.AttributedString;
+
+import java.util.function.Consumer;
+
+/**
+ * Highlighter that reports the buffer whenever the line is redisplayed.
+ * Line reader highlights the buffer after each key stroke,
+ * so this acts as a listener for the input that is being typed.
+ */
+public class SpeculativeHighlighter extends DefaultHighlighter {
+    private Consumer<String> bufferListener;
+
+    public SpeculativeHighlighter() {
+        this.bufferListener = buffer -> {
+        };
+    }
+
+    @Override
+    public AttributedString highlight(LineReader reader, String buffer) {
+        bufferListener.accept(buffer);
+        return super.highlight(reader, buffer);
+    }
+
+    public void setBufferListener(Consumer<String> bufferListener) {
+        this.bufferListener = bufferListener;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.benchmark;
+
+import freemarker.template.Configuration;
+import freemarker.template.Template;
+import freemarker.template.TemplateException;
+import io.ballerina.shell.invoker.classload.ElevatedType;
+import io.ballerina.shell.invoker.classload.GlobalVariable;
+import io.ballerina.shell.invoker.classload.SourceEmitter;
+import io.ballerina.shell.invoker.classload.context.ClassLoadContext;
+import io.ballerina.shell.invoker.classload.context.StatementContext;
+import io.ballerina.shell.invoker.classload.context.VariableContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares generating the execution program with the source emitter
+ * against rendering the Freemarker template that was used previously.
+ * Run using {@code ./gradlew :shell-core:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SourceEmitterBenchmark {
+    private static final String EXECUTION_TEMPLATE_FILE = "template.execution.ftl";
+
+    @Param({"10", "100", "1000"})
+    public int globals;
+
+    private ClassLoadContext context;
+    private SourceEmitter sourceEmitter;
+    private Template cachedTemplate;
+
+    @Setup
+    public void setup() throws IOException {
+        List<VariableContext> varDclns = new ArrayList<>();
+        List<String> moduleDclns = new ArrayList<>();
+        for (int i = 0; i < globals; i++) {
+            GlobalVariable variable = new GlobalVariable("int", "x" + i, ElevatedType.NONE);
+            varDclns.add(VariableContext.oldVar(variable));
+            moduleDclns.add(String.format("function f%d() returns int { return %d; }", i, i));
+        }
+        List<String> imports = List.of("import ballerina/java;", "import ballerina/lang.'int as 'int;");
+        context = new ClassLoadContext("context", imports, moduleDclns, varDclns, null, new StatementContext());
+        sourceEmitter = new SourceEmitter();
+        cachedTemplate = createTemplate();
+    }
+
+    @Benchmark
+    public String freemarkerPerCall() throws IOException, TemplateException {
+        // Previous behaviour: configuration and template were created for every program.
+        return render(createTemplate());
+    }
+
+    @Benchmark
+    public String freemarkerCachedTemplate() throws IOException, TemplateException {
+        return render(cachedTemplate);
+    }
+
+    @Benchmark
+    public String sourceEmitter() {
+        return sourceEmitter.emitExecution(context);
+    }
+
+    private Template createTemplate() throws IOException {
+        Configuration cfg = new Configuration(Configuration.VERSION_2_3_21);
+        cfg.setClassForTemplateLoading(getClass(), "/");
+        cfg.setDefaultEncoding("UTF-8");
+        return cfg.getTemplate(EXECUTION_TEMPLATE_FILE);
+    }
+
+    private String render(Template template) throws IOException, TemplateException {
+        try (StringWriter stringWriter = new StringWriter()) {
+            template.process(context, stringWriter);
+            return stringWriter.toString();
+        }
+    }
+}
@@ -3,9 +3,12 @@
 ${import}
 </#list>
 
-handle context_id = java:fromString("${contextId}");
+handle context_id = currentContextId();
 
 // Java methods: Memory
+function currentContextId() returns handle = @java:Method {
+    'class: "${memoryRef}"
+} external;
 function recall(handle context_id, handle name) returns any|error = @java:Method {
     'class: "${memoryRef}"
 } external;
@@ -44,9 +47,7 @@ ${dcln}
 
 // Variable declarations
 <#list varDclns as varDcln>
-<#if varDcln.new>
-(${varDcln.type})? ${varDcln.name} = (); // There is an issue with the name or type
-<#else>
+<#if !varDcln.new>
 <#if varDcln.isAny()>
 ${varDcln.type} ${varDcln.name} = <${varDcln.type}> checkpanic recall_h("${varDcln.name?j_string}");
 <#else>
@@ -89,6 +89,10 @@ public class Diagnostic {
         return kind;
     }
 
+    public String getMessage() {
+        return message;
+    }
+
     @Override
     public String toString() {
         return message;
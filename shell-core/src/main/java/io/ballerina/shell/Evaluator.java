@@ -28,9 +28,13 @@ import io.ballerina.shell.snippet.factory.SnippetFactory;
 import io.ballerina.shell.utils.timeit.TimeIt;
 import io.ballerina.shell.utils.timeit.TimedOperation;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
 
 /**
  * Main shell entry point.
@@ -42,6 +46,7 @@ public class Evaluator extends DiagnosticReporter {
     private final TreeParser treeParser;
     private final SnippetFactory snippetFactory;
     private final Invoker invoker;
+    private CompletableFuture<Void> initialization;
 
     public Evaluator(Preprocessor preprocessor, TreeParser treeParser,
                      SnippetFactory snippetFactory, Invoker invoker) {
@@ -49,6 +54,7 @@ public class Evaluator extends DiagnosticReporter {
         this.treeParser = treeParser;
         this.snippetFactory = snippetFactory;
         this.invoker = invoker;
+        this.initialization = CompletableFuture.completedFuture(null);
     }
 
     /**
@@ -67,6 +73,45 @@ public class Evaluator extends DiagnosticReporter {
         }
     }
 
+    /**
+     * Starts initializing the required components in a background thread.
+     * {@code awaitInitialization} must be called before using the evaluator.
+     */
+    public void initializeInBackground() {
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        Thread thread = new Thread(() -> {
+            try {
+                initialize();
+                future.complete(null);
+            } catch (BallerinaShellException | RuntimeException e) {
+                future.completeExceptionally(e);
+            }
+        }, "shell-initializer");
+        thread.setDaemon(true);
+        thread.start();
+        this.initialization = future;
+    }
+
+    /**
+     * Waits until the initialization started by {@code initializeInBackground} is completed.
+     * Returns immediately if there is no initialization in progress.
+     *
+     * @throws BallerinaShellException If initialization failed.
+     */
+    public void awaitInitialization() throws BallerinaShellException {
+        try {
+            initialization.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for initialization.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof BallerinaShellException) {
+                throw (BallerinaShellException) e.getCause();
+            }
+            throw new IllegalStateException("Initialization failed.", e.getCause());
+        }
+    }
+
     /**
      * Base evaluation function which evaluates an input line.
      * <p>
@@ -81,19 +126,38 @@ public class Evaluator extends DiagnosticReporter {
      * @param source Input line from user.
      * @return String output from the evaluator. This will be the last output.
      */
-    public String evaluate(String source) throws BallerinaShellException {
+    public synchronized String evaluate(String source) throws BallerinaShellException {
         String response = null;
         try {
             Collection<String> statements = timedOperation("preprocessor", () -> preprocessor.process(source));
+
+            // Snippets are created ahead so that their imports are resolved together.
+            // Snippets before an invalid statement are still executed.
+            List<Snippet> snippets = new ArrayList<>();
+            BallerinaShellException snippetError = null;
             for (String statement : statements) {
-                Node rootNode = timedOperation("tree parser", () -> treeParser.parse(statement));
-                Snippet snippet = timedOperation("snippet factory", () -> snippetFactory.createSnippet(rootNode));
-                Optional<Object> invokerOut = timedOperation("invoker", () -> invoker.execute(snippet));
+                try {
+                    Node rootNode = timedOperation("tree parser", () -> treeParser.parse(statement));
+                    snippets.add(timedOperation("snippet factory", () -> snippetFactory.createSnippet(rootNode)));
+                } catch (BallerinaShellException e) {
+                    snippetError = e;
+                    break;
+                }
+            }
 
+            timedOperation("import preparation", () -> {
+                invoker.prepareImports(snippets);
+                return null;
+            });
+            for (Snippet snippet : snippets) {
+                Optional<Object> invokerOut = timedOperation("invoker", () -> invoker.execute(snippet));
                 if (invokerOut.isPresent()) {
                     response = String.valueOf(invokerOut.get());
                 }
             }
+            if (snippetError != null) {
+                throw snippetError;
+            }
             return response;
         } finally {
             addAllDiagnostics(preprocessor.diagnostics());
@@ -107,10 +171,50 @@ public class Evaluator extends DiagnosticReporter {
         }
     }
 
+    /**
+     * Prepares an input line that may be evaluated next, without evaluating it.
+     * This is meant to be called in the background while the user is typing.
+     * A later evaluation of the same input can then skip the compilation.
+     * Only inputs with a single statement are prepared, since later statements
+     * depend on the execution of the earlier ones.
+     * State and diagnostics of the evaluator are not changed.
+     * <p>
+     * The input may change while it is prepared. Preparation is given up between its phases
+     * once the input is stale, so that an evaluation does not wait for a compilation
+     * of an input that will not be evaluated.
+     *
+     * @param source  Input line that is being typed.
+     * @param isStale Whether the input changed after the preparation was started.
+     * @return Whether the input was prepared.
+     */
+    public synchronized boolean speculate(String source, BooleanSupplier isStale) {
+        if (!initialization.isDone() || initialization.isCompletedExceptionally() || isStale.getAsBoolean()) {
+            return false;
+        }
+        try {
+            Collection<String> statements = preprocessor.process(source);
+            if (statements.size() != 1) {
+                return false;
+            }
+            Node rootNode = treeParser.speculativeParse(statements.iterator().next());
+            if (isStale.getAsBoolean()) {
+                return false;
+            }
+            Snippet snippet = snippetFactory.createSnippet(rootNode);
+            return invoker.speculate(snippet, isStale);
+        } catch (BallerinaShellException | RuntimeException e) {
+            return false;
+        } finally {
+            preprocessor.resetDiagnostics();
+            treeParser.resetDiagnostics();
+            snippetFactory.resetDiagnostics();
+        }
+    }
+
     /**
      * Reset evaluator so that the execution can be start over.
      */
-    public void reset() {
+    public synchronized void reset() {
         preprocessor.resetDiagnostics();
         treeParser.resetDiagnostics();
         snippetFactory.resetDiagnostics();
@@ -119,6 +223,14 @@ public class Evaluator extends DiagnosticReporter {
         invoker.reset();
     }
 
+    /**
+     * Releases the threads held by the evaluator.
+     * The evaluator must not be used afterwards.
+     */
+    public void shutdown() {
+        treeParser.shutdown();
+    }
+
     public List<String> availableImports() {
         return invoker.availableImports();
     }
@@ -131,6 +243,12 @@ public class Evaluator extends DiagnosticReporter {
         return invoker.availableModuleDeclarations();
     }
 
+    public List<String> cacheStatistics() {
+        List<String> statistics = new ArrayList<>(invoker.cacheStatistics());
+        statistics.addAll(treeParser.statistics());
+        return statistics;
+    }
+
     public Preprocessor getPreprocessor() {
         return preprocessor;
     }
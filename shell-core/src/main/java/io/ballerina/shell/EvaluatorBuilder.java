@@ -34,6 +34,8 @@ import java.util.Objects;
  * Allows to change the components used to evaluation.
  * By default this will use {@link SeparatorPreprocessor}, {@link TrialTreeParser},
  * {@link BasicSnippetFactory} and {@link ClassLoadInvoker}.
+ * Trials of the tree parser can be raced using {@code parallelTreeParser}
+ * or ordered by their past successes using {@code adaptiveTreeParser}.
  */
 public class EvaluatorBuilder {
     private Preprocessor preprocessor;
@@ -59,6 +61,16 @@ public class EvaluatorBuilder {
         return this;
     }
 
+    public EvaluatorBuilder parallelTreeParser(long timeOutDurationMs) {
+        this.treeParser = TrialTreeParser.parallelParser(timeOutDurationMs);
+        return this;
+    }
+
+    public EvaluatorBuilder adaptiveTreeParser(long timeOutDurationMs) {
+        this.treeParser = TrialTreeParser.adaptiveParser(timeOutDurationMs);
+        return this;
+    }
+
     public EvaluatorBuilder snippetFactory(SnippetFactory snippetFactory) {
         this.snippetFactory = snippetFactory;
         return this;
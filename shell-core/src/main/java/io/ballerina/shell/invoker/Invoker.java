@@ -18,8 +18,6 @@
 
 package io.ballerina.shell.invoker;
 
-import freemarker.template.Configuration;
-import freemarker.template.Template;
 import io.ballerina.projects.DiagnosticResult;
 import io.ballerina.projects.Document;
 import io.ballerina.projects.DocumentId;
@@ -36,8 +34,10 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.charset.Charset;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.BooleanSupplier;
 
 /**
  * Invoker that invokes a command to evaluate a list of snippets.
@@ -46,12 +46,17 @@ import java.util.Optional;
  * {@code reset} function will clear the invoker state.
  * <p>
  * Context of an invoker is the context that will be used to
- * fill the template. This should be a logic-less as much as possible.
+ * generate the program source. This should be a logic-less as much as possible.
  * Invoker and its context may be tightly coupled.
  */
 public abstract class Invoker extends DiagnosticReporter {
     private static final String NON_ACCESSIBLE_TYPE_CODE = "BCE2037";
     private static final boolean USE_TEMP_FILE = true;
+    /**
+     * System property to write every generated source to the buffer file.
+     * Useful to debug the generated code.
+     */
+    public static final String DUMP_SOURCE_PROPERTY = "ballerina.shell.dumpSource";
 
     /**
      * File object that is used to create projects and write.
@@ -66,7 +71,7 @@ public abstract class Invoker extends DiagnosticReporter {
      * <p>
      * Runs so that a demo file is loaded and compiled
      * so the required caches will be ready once the user gives input.
-     * Any error is an indication of a failure in template of base compilation.
+     * Any error is an indication of a failure in generated source of base compilation.
      * Throw if that happens.
      *
      * @throws InvokerException If initialization failed.
@@ -88,6 +93,31 @@ public abstract class Invoker extends DiagnosticReporter {
      */
     public abstract Optional<Object> execute(Snippet newSnippet) throws InvokerException;
 
+    /**
+     * Prepares a snippet that may be executed later, without executing it.
+     * This should not change the state or the diagnostics of the invoker.
+     * Invokers that cannot prepare snippets do nothing.
+     * Preparation should be given up once the snippet is stale.
+     *
+     * @param newSnippet Snippet that may be executed next.
+     * @param isStale    Whether the snippet will not be executed anymore.
+     * @return Whether the snippet was prepared.
+     */
+    public boolean speculate(Snippet newSnippet, BooleanSupplier isStale) {
+        return false;
+    }
+
+    /**
+     * Prepares the imports of snippets that are going to be executed in order.
+     * Invokers may resolve all the imports together instead of one by one.
+     * Imports are still processed (and errors reported) when they are executed.
+     * Invokers that cannot prepare imports do nothing.
+     *
+     * @param newSnippets Snippets that are going to be executed.
+     */
+    public void prepareImports(Collection<Snippet> newSnippets) {
+    }
+
     /**
      * Returns available imports in the module.
      *
@@ -110,22 +140,13 @@ public abstract class Invoker extends DiagnosticReporter {
     public abstract List<String> availableModuleDeclarations();
 
     /**
-     * Helper method that creates the template reference.
+     * Returns statistics of the caches used by the invoker.
+     * Invokers without caches return an empty list.
      *
-     * @param templateName Name of the template.
-     * @return Created template
-     * @throws InvokerException If reading template failed.
-     */
-    protected Template getTemplate(String templateName) throws InvokerException {
-        Configuration cfg = new Configuration(Configuration.VERSION_2_3_21);
-        cfg.setClassForTemplateLoading(getClass(), "/");
-        cfg.setDefaultEncoding("UTF-8");
-        try {
-            return cfg.getTemplate(templateName);
-        } catch (IOException e) {
-            addDiagnostic(Diagnostic.error("Template file read failed: " + e.getMessage()));
-            throw new InvokerException(e);
-        }
+     * @return Cache statistics as a list of string.
+     */
+    public List<String> cacheStatistics() {
+        return List.of();
     }
 
     /**
@@ -203,6 +224,19 @@ public abstract class Invoker extends DiagnosticReporter {
         return createdFile;
     }
 
+    /**
+     * Writes the source to the buffer file if source dumping is enabled.
+     * Dumping is enabled using the {@code ballerina.shell.dumpSource} system property.
+     *
+     * @param source Generated source.
+     * @throws IOException If writing was unsuccessful.
+     */
+    protected void dumpSource(String source) throws IOException {
+        if (Boolean.getBoolean(DUMP_SOURCE_PROPERTY)) {
+            writeToFile(source);
+        }
+    }
+
     /**
      * Get the file that would be used as the buffer for loading project.
      *
@@ -18,8 +18,7 @@
 
 package io.ballerina.shell.invoker.classload;
 
-import freemarker.template.Template;
-import freemarker.template.TemplateException;
+import io.ballerina.compiler.api.SemanticModel;
 import io.ballerina.compiler.api.symbols.FunctionSymbol;
 import io.ballerina.compiler.api.symbols.Symbol;
 import io.ballerina.compiler.api.symbols.SymbolKind;
@@ -30,7 +29,9 @@ import io.ballerina.compiler.syntax.tree.FunctionBodyNode;
 import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
 import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModulePartNode;
-import io.ballerina.compiler.syntax.tree.NodeList;
+import io.ballerina.compiler.syntax.tree.StatementNode;
+import io.ballerina.compiler.syntax.tree.Token;
+import io.ballerina.compiler.syntax.tree.VariableDeclarationNode;
 import io.ballerina.projects.BuildOptions;
 import io.ballerina.projects.BuildOptionsBuilder;
 import io.ballerina.projects.Document;
@@ -44,14 +45,22 @@ import io.ballerina.projects.PackageCompilation;
 import io.ballerina.projects.Project;
 import io.ballerina.projects.directory.SingleFileProject;
 import io.ballerina.shell.Diagnostic;
+import io.ballerina.shell.DiagnosticKind;
 import io.ballerina.shell.exceptions.InvokerException;
 import io.ballerina.shell.invoker.Invoker;
+import io.ballerina.shell.invoker.classload.cache.ArtifactStore;
+import io.ballerina.shell.invoker.classload.cache.CompiledProgram;
+import io.ballerina.shell.invoker.classload.cache.CompiledProgramCache;
+import io.ballerina.shell.invoker.classload.cache.DependencyClassLoader;
+import io.ballerina.shell.invoker.classload.cache.ImportHistogram;
+import io.ballerina.shell.invoker.classload.cache.ImportResolutionCache;
+import io.ballerina.shell.invoker.classload.cache.ModuleRepositoryIndex;
+import io.ballerina.shell.invoker.classload.cache.StartupSnapshot;
 import io.ballerina.shell.invoker.classload.context.ClassLoadContext;
 import io.ballerina.shell.invoker.classload.context.StatementContext;
 import io.ballerina.shell.invoker.classload.context.VariableContext;
-import io.ballerina.shell.invoker.classload.visitors.ElevatedTypeTransformer;
-import io.ballerina.shell.invoker.classload.visitors.TypeSignatureTransformer;
-import io.ballerina.shell.invoker.classload.visitors.TypeVisibilityVisitor;
+import io.ballerina.shell.invoker.classload.visitors.TypeAnalysis;
+import io.ballerina.shell.invoker.classload.visitors.TypeAnalyzer;
 import io.ballerina.shell.rt.InvokerMemory;
 import io.ballerina.shell.snippet.Snippet;
 import io.ballerina.shell.snippet.types.ExecutableSnippet;
@@ -67,22 +76,27 @@ import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintStream;
-import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.net.MalformedURLException;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 
 /**
@@ -95,13 +109,19 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
     public static final String CONTEXT_EXPR_VAR_NAME = "expr";
     // Main class and method names to invoke
     public static final String MODULE_NOT_FOUND_CODE = "BCE2003";
+    /**
+     * Comma separated modules to resolve in the background after initialization.
+     * Most frequently imported modules of the previous sessions are used if not given.
+     */
+    public static final String WARM_IMPORTS_PROPERTY = "ballerina.shell.warmImports";
+    protected static final int DEFAULT_WARM_IMPORT_COUNT = 3;
     protected static final String MODULE_INIT_CLASS_NAME = "$_init";
     protected static final String MODULE_MAIN_METHOD_NAME = "main";
+    protected static final String MODULE_STMTS_METHOD_NAME = "stmts";
     protected static final String DOLLAR = "$";
+    protected static final String ERROR_TYPE = "error";
+    protected static final String OPTIONAL_SUFFIX = "?";
     // Punctuations
-    private static final String DECLARATION_TEMPLATE_FILE = "template.declaration.ftl";
-    private static final String IMPORT_TEMPLATE_FILE = "template.import.ftl";
-    private static final String EXECUTION_TEMPLATE_FILE = "template.execution.ftl";
 
     private static final AtomicInteger importIndex = new AtomicInteger(0);
 
@@ -114,6 +134,10 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
      * These are imported to the read generated code as necessary.
      */
     protected final HashedImports imports;
+    /**
+     * Emitter that generates the source of the programs.
+     */
+    protected final SourceEmitter sourceEmitter;
     /**
      * List of module level declarations such as functions, classes, etc...
      * The snippets are saved as is.
@@ -125,6 +149,16 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
      * The variable name must be a quoted identifier.
      */
     protected final Set<GlobalVariable> globalVars;
+    /**
+     * Names defined and referred by the module level declarations.
+     * Used to leave out everything a snippet does not depend on from its program.
+     */
+    protected final ReferenceGraph referenceGraph;
+    /**
+     * Analyzer of the variable types. Remembers the analyzed types until the imports are reset
+     * or a module level declaration is defined.
+     */
+    protected final TypeAnalyzer typeAnalyzer;
     /**
      * Flag to keep track of whether the invoker is initialized.
      */
@@ -145,6 +179,55 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
      * Persisted at the end of iteration to `mustImportPrefixes`.
      */
     private final Set<String> newImplicitImports;
+    /**
+     * Cache of programs that were compiled previously.
+     * Shared by all the invokers and kept even if the invoker is reset,
+     * since programs are keyed by the whole source.
+     */
+    protected final CompiledProgramCache compiledPrograms;
+    /**
+     * Store of compile artifacts that is shared across shell sessions.
+     */
+    protected final ArtifactStore artifactStore;
+    /**
+     * Startup state that is reused by resets and by later shell sessions.
+     */
+    protected final StartupSnapshot startupSnapshot;
+    /**
+     * Outcomes of resolving modules before.
+     * Kept even if the invoker is reset, since outcomes only depend on the distribution and its repository.
+     */
+    protected final ImportResolutionCache importResolutions;
+    /**
+     * Index of the distribution repository, used to check imports without compiling.
+     */
+    protected final ModuleRepositoryIndex moduleIndex;
+    /**
+     * Counts of the imports of all the sessions, used to choose the modules to warm up.
+     */
+    protected final ImportHistogram importHistogram;
+    /**
+     * Class loader of the dependency jars that is the parent of every program loader.
+     * Cleared when the invoker is reset so that dependencies are initialized afresh.
+     */
+    protected final DependencyClassLoader dependencyClassLoader;
+    /**
+     * Project that is kept alive throughout the session.
+     * Every generated program is applied as a modification of its only document,
+     * so the compiler environment (loaded lang libs and dependencies) is reused.
+     * This is created on demand and kept even if the invoker is reset.
+     */
+    private Project sessionProject;
+    /**
+     * Backend warm up that was started by the initialization.
+     * Completes normally even if the warm up failed.
+     */
+    private CompletableFuture<Void> backendWarmUp;
+    /**
+     * Declaration program that compiled without errors when it was speculated.
+     * The declaration need not be compiled again if the same program is generated for it.
+     */
+    private String validatedDeclarationSource;
 
     /**
      * Creates a class load invoker from the given ballerina home.
@@ -156,10 +239,21 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
         this.contextId = UUID.randomUUID().toString();
         this.moduleDclns = new HashMap<>();
         this.globalVars = new HashSet<>();
+        this.referenceGraph = new ReferenceGraph();
+        this.typeAnalyzer = new TypeAnalyzer(this);
         this.newSymbols = new HashSet<>();
         this.newImplicitImports = new HashSet<>();
         this.knownSymbols = new HashSet<>();
         this.imports = new HashedImports();
+        this.sourceEmitter = new SourceEmitter();
+        this.compiledPrograms = CompiledProgramCache.sharedCache();
+        this.artifactStore = new ArtifactStore();
+        this.startupSnapshot = new StartupSnapshot();
+        this.importResolutions = new ImportResolutionCache();
+        this.moduleIndex = ModuleRepositoryIndex.sharedIndex();
+        this.importHistogram = new ImportHistogram();
+        this.dependencyClassLoader = new DependencyClassLoader();
+        this.backendWarmUp = CompletableFuture.completedFuture(null);
     }
 
     /**
@@ -173,24 +267,135 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
     @Override
     public void initialize() throws InvokerException {
         ClassLoadContext emptyContext = new ClassLoadContext(contextId, imports.getImplicitImports());
-        SingleFileProject project = getProject(emptyContext, DECLARATION_TEMPLATE_FILE);
+        String source = sourceEmitter.emitDeclaration(emptyContext);
+        Optional<Set<HashedSymbol>> snapshotSymbols = loadSnapshotSymbols(source);
+        if (snapshotSymbols.isPresent()) {
+            addDiagnostic(Diagnostic.debug("Using known symbols from the startup snapshot."));
+            knownSymbols.addAll(snapshotSymbols.get());
+            warmUpBackend(source, null);
+            this.initialized.set(true);
+            return;
+        }
+
+        Project project = getProject(source);
         PackageCompilation compilation = compile(project);
         Collection<Symbol> symbols = visibleUnknownSymbols(project, compilation);
         symbols.stream().map(HashedSymbol::new).forEach(knownSymbols::add);
-        JBallerinaBackend.from(compile(project), JvmTarget.JAVA_11);
+        saveSnapshotSymbols(source, knownSymbols);
+        warmUpBackend(source, compilation);
         this.initialized.set(true);
     }
 
+    /**
+     * Runs the backend on the initial program in a background thread,
+     * so that the code generator is loaded before the first snippet arrives.
+     * The session project is loaded as well if it was not loaded yet.
+     * Commonly imported modules are resolved afterwards in the same thread.
+     * The session project must not be used until {@code awaitBackendWarmUp} returns.
+     * Failures are ignored since any real problem would surface in the next compilation.
+     *
+     * @param source      Initial program source.
+     * @param compilation Compilation of the initial program. Null if not compiled yet.
+     */
+    private void warmUpBackend(String source, PackageCompilation compilation) {
+        this.backendWarmUp = CompletableFuture.runAsync(() -> {
+            PackageCompilation warmUpCompilation = compilation;
+            if (warmUpCompilation == null) {
+                try {
+                    warmUpCompilation = applySource(source).currentPackage().getCompilation();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+            JBallerinaBackend.from(warmUpCompilation, JvmTarget.JAVA_11);
+            warmUpImports();
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "shell-backend-warm-up");
+            thread.setDaemon(true);
+            thread.start();
+        }).exceptionally(e -> null);
+    }
+
+    /**
+     * Resolves the modules of the warm set on the session project,
+     * so that their symbols are already loaded when they are imported.
+     * Outcomes are remembered so that the imports need not be compiled again.
+     * This runs in the warm up thread, so diagnostics are not reported
+     * and a separate emitter is used to not share the session emitter between threads.
+     */
+    private void warmUpImports() {
+        List<String> moduleNames = new ArrayList<>();
+        for (String moduleName : warmImportModules()) {
+            Optional<Boolean> knownResolution = importResolutions.resolution(moduleName, moduleIndex.fingerprint())
+                    .or(() -> moduleIndex.resolution(moduleName));
+            if (knownResolution.orElse(true)) {
+                moduleNames.add(moduleName);
+            }
+        }
+        if (moduleNames.isEmpty()) {
+            return;
+        }
+
+        List<String> importStatements = new ArrayList<>();
+        for (String moduleName : moduleNames) {
+            String quotedPrefix = StringUtils.quoted("warm" + importIndex.incrementAndGet());
+            importStatements.add(String.format("import %s as %s;", moduleName, quotedPrefix));
+        }
+        try {
+            SourceEmitter warmUpEmitter = new SourceEmitter();
+            String source = warmUpEmitter.emitImport(new ClassLoadContext(this.contextId, importStatements));
+            PackageCompilation compilation = applySource(source).currentPackage().getCompilation();
+            Map<String, Boolean> resolutions = importResolutions(moduleNames, importStatements, compilation);
+            for (Map.Entry<String, Boolean> resolution : resolutions.entrySet()) {
+                importResolutions.store(resolution.getKey(), resolution.getValue(), moduleIndex.fingerprint());
+            }
+        } catch (IOException | RuntimeException ignored) {
+            // Modules are resolved when they are imported.
+        }
+    }
+
+    /**
+     * Modules to resolve while warming up.
+     * These are given by {@code WARM_IMPORTS_PROPERTY},
+     * or are the most frequently imported modules if the property is not set.
+     *
+     * @return Names of the modules to warm up.
+     */
+    private List<String> warmImportModules() {
+        String warmImports = System.getProperty(WARM_IMPORTS_PROPERTY);
+        if (warmImports == null) {
+            return importHistogram.mostFrequent(DEFAULT_WARM_IMPORT_COUNT);
+        }
+        return Arrays.stream(warmImports.split(","))
+                .map(String::strip)
+                .filter(moduleName -> !moduleName.isEmpty())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Waits until the background warm up of the backend is completed.
+     * This must be called before accessing the session project.
+     */
+    private void awaitBackendWarmUp() {
+        backendWarmUp.join();
+    }
+
     @Override
     public void reset() {
         // Clear everything in memory
         // data wrt the memory context is also removed.
         this.moduleDclns.clear();
         this.globalVars.clear();
+        this.referenceGraph.clear();
         InvokerMemory.forgetAll(contextId);
         this.knownSymbols.clear();
         this.initialized.set(false);
         this.imports.reset();
+        this.typeAnalyzer.clear();
+        this.validatedDeclarationSource = null;
+        // Session project is kept, the next source replaces its content.
+        awaitBackendWarmUp();
+        this.dependencyClassLoader.clear();
     }
 
     @Override
@@ -224,6 +429,9 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
                 this.knownSymbols.addAll(this.newSymbols);
                 this.newImplicitImports.forEach(imports::storeImplicitPrefix);
                 this.moduleDclns.put(newModuleDcln.getKey(), newModuleDcln.getValue());
+                this.referenceGraph.addDeclaration(newModuleDcln.getKey(), moduleDcln);
+                // Types of the same signature may now be a different type
+                this.typeAnalyzer.clear();
                 addDiagnostic(Diagnostic.debug("Module dcln name: " + newModuleDcln.getKey()));
                 addDiagnostic(Diagnostic.debug("Module dcln code: " + newModuleDcln.getValue()));
                 addDiagnostic(Diagnostic.debug("Found new symbols: " + this.newSymbols));
@@ -234,23 +442,22 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
             case STATEMENT:
             case EXPRESSION:
                 assert newSnippet instanceof ExecutableSnippet;
-                Set<GlobalVariable> newVariables = new HashSet<>();
+                Set<String> newVariableNames = new HashSet<>();
                 if (newSnippet.isVariableDeclaration()) {
                     assert newSnippet instanceof VariableDeclarationSnippet;
-                    VariableDeclarationSnippet varDcln = (VariableDeclarationSnippet) newSnippet;
-                    newVariables = timedOperation("processing var dcln", () -> processVarDcln(varDcln));
+                    newVariableNames = findNewVariableNames((VariableDeclarationSnippet) newSnippet);
                 }
 
-                // Compile and execute the real program.
-                ClassLoadContext context = createExecutionContext((ExecutableSnippet) newSnippet, newVariables);
-                SingleFileProject project = timedOperation("building project",
-                        () -> getProject(context, EXECUTION_TEMPLATE_FILE));
-                PackageCompilation compilation = timedOperation("compilation",
-                        () -> compile(project));
-                JBallerinaBackend jBallerinaBackend = timedOperation("backend fetch",
-                        () -> JBallerinaBackend.from(compilation, JvmTarget.JAVA_11));
-                boolean isExecutionSuccessful = timedOperation("project execution",
-                        () -> executeProject(project, jBallerinaBackend));
+                // Compile (if not compiled previously) and execute the real program.
+                // Types of the new variables are inferred from the same compilation.
+                ClassLoadContext context = createExecutionContext((ExecutableSnippet) newSnippet, newVariableNames);
+                String source = timedOperation("rendering", () -> sourceEmitter.emitExecution(context));
+                Set<String> variableNames = newVariableNames;
+                CompiledProgram program = timedOperation("compiled program fetch",
+                        () -> getCompiledProgram(source, (ExecutableSnippet) newSnippet, variableNames));
+                Set<GlobalVariable> newVariables = program.getNewVariables();
+                boolean isExecutionSuccessful = timedOperation("program execution",
+                        () -> executeProgram(program));
 
                 if (!isExecutionSuccessful) {
                     addDiagnostic(Diagnostic.error("Unhandled Runtime Error."));
@@ -275,6 +482,73 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
         }
     }
 
+    /**
+     * Compiles an executable snippet so that the program is in the cache when it is executed.
+     * A named module level declaration is validated, so that defining it needs no compilation.
+     * Other snippets change the state even when only compiled, so those are not prepared.
+     * Diagnostics found while compiling are discarded.
+     * Implicit imports found while compiling are forgotten, along with the type analyses that need them.
+     * The compiled program remembers them, so they are stored again when the snippet is executed.
+     * A stale snippet is not compiled, since the compilation cannot be interrupted once started.
+     *
+     * @param newSnippet Snippet that may be executed next.
+     * @param isStale    Whether the snippet will not be executed anymore.
+     * @return Whether the snippet was compiled.
+     */
+    @Override
+    public boolean speculate(Snippet newSnippet, BooleanSupplier isStale) {
+        if (!this.initialized.get() || isStale.getAsBoolean()) {
+            return false;
+        }
+        boolean isNamedDeclaration = newSnippet instanceof ModuleMemberDeclarationSnippet
+                && ((ModuleMemberDeclarationSnippet) newSnippet).declaredName().isPresent();
+        if (!(newSnippet instanceof ExecutableSnippet) && !isNamedDeclaration) {
+            return false;
+        }
+
+        List<Diagnostic> previousDiagnostics = new ArrayList<>(diagnostics());
+        HashedImports previousImports = imports.copy();
+        try {
+            newSymbols.clear();
+            newImplicitImports.clear();
+            if (isNamedDeclaration) {
+                ModuleMemberDeclarationSnippet moduleDcln = (ModuleMemberDeclarationSnippet) newSnippet;
+                String source = sourceEmitter.emitDeclaration(createModuleDclnNameInferContext(moduleDcln));
+                if (isStale.getAsBoolean()) {
+                    return false;
+                }
+                compile(getProject(source));
+                this.validatedDeclarationSource = source;
+                return true;
+            }
+            Set<String> newVariableNames = new HashSet<>();
+            if (newSnippet.isVariableDeclaration()) {
+                assert newSnippet instanceof VariableDeclarationSnippet;
+                newVariableNames = findNewVariableNames((VariableDeclarationSnippet) newSnippet);
+            }
+            ClassLoadContext context = createExecutionContext((ExecutableSnippet) newSnippet, newVariableNames);
+            String source = sourceEmitter.emitExecution(context);
+            if (isStale.getAsBoolean()) {
+                return false;
+            }
+            getCompiledProgram(source, (ExecutableSnippet) newSnippet, newVariableNames);
+            return true;
+        } catch (InvokerException | RuntimeException e) {
+            return false;
+        } finally {
+            newSymbols.clear();
+            newImplicitImports.clear();
+            resetDiagnostics();
+            addAllDiagnostics(previousDiagnostics);
+            Set<String> speculatedPrefixes = new HashSet<>(imports.prefixes());
+            speculatedPrefixes.removeAll(previousImports.prefixes());
+            if (!speculatedPrefixes.isEmpty()) {
+                imports.restore(previousImports);
+                typeAnalyzer.forgetImports(speculatedPrefixes);
+            }
+        }
+    }
+
     @Override
     public String processImplicitImport(String moduleName, String defaultPrefix) throws InvokerException {
         if (imports.moduleImported(moduleName)) {
@@ -289,12 +563,89 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
         }
 
         // Check if import is successful.
-        if (isImportStatementValid(String.format("import %s as %s;", moduleName, quotedPrefix))) {
+        if (isImportStatementValid(moduleName, String.format("import %s as %s;", moduleName, quotedPrefix))) {
             return imports.storeImport(quotedPrefix, moduleName);
         }
         return null;
     }
 
+    /**
+     * Resolves the new imports among the snippets in a single compilation.
+     * Each module not found error is matched to the import that spans the line it is reported on.
+     * Outcomes are remembered so that processing the imports later need not compile.
+     * Imports that are not prepared here are checked one by one when they are processed.
+     *
+     * @param newSnippets Snippets that are going to be executed.
+     */
+    @Override
+    public void prepareImports(Collection<Snippet> newSnippets) {
+        Map<String, String> importStatements = new LinkedHashMap<>();
+        Set<String> usedPrefixes = new HashSet<>();
+        for (Snippet snippet : newSnippets) {
+            if (!(snippet instanceof ImportDeclarationSnippet)) {
+                continue;
+            }
+            ImportDeclarationSnippet importSnippet = (ImportDeclarationSnippet) snippet;
+            String moduleName = importSnippet.getImportedModule();
+            String quotedPrefix = StringUtils.quoted(importSnippet.getPrefix());
+            if (imports.moduleImported(moduleName) || imports.containsPrefix(quotedPrefix)
+                    || importStatements.containsKey(moduleName) || !usedPrefixes.add(quotedPrefix)
+                    || knownImportResolution(moduleName).isPresent()) {
+                // Already resolved or would fail anyway, processed on its own.
+                continue;
+            }
+            importStatements.put(moduleName, importSnippet.toString());
+        }
+        if (importStatements.size() < 2) {
+            return;
+        }
+
+        try {
+            List<String> moduleNames = new ArrayList<>(importStatements.keySet());
+            List<String> importStrings = new ArrayList<>(importStatements.values());
+            ClassLoadContext importCheckingContext = new ClassLoadContext(this.contextId, importStrings);
+            Project project = getProject(sourceEmitter.emitImport(importCheckingContext));
+            PackageCompilation compilation = project.currentPackage().getCompilation();
+            importResolutions(moduleNames, importStrings, compilation).forEach(this::storeImportResolution);
+        } catch (InvokerException | RuntimeException e) {
+            // Imports will be checked one by one.
+            addDiagnostic(Diagnostic.debug("Preparing imports failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Finds the outcome of each import of a compiled import program.
+     * Each module not found error is matched to the import that spans the line it is reported on.
+     * Imports may span several lines (with comments or line breaks),
+     * so the lines of the imports are found as they were emitted.
+     *
+     * @param moduleNames      Imported modules, in the order of the import statements.
+     * @param importStatements Import statements of the program, in the order they were emitted.
+     * @param compilation      Compilation of the import program.
+     * @return Whether each module resolved, in the order of the import statements.
+     */
+    private static Map<String, Boolean> importResolutions(List<String> moduleNames, List<String> importStatements,
+                                                          PackageCompilation compilation) {
+        List<Integer> endLines = SourceEmitter.importEndLines(importStatements);
+        Set<Integer> failedImports = new HashSet<>();
+        for (io.ballerina.tools.diagnostics.Diagnostic diagnostic : compilation.diagnosticResult().diagnostics()) {
+            if (diagnostic.diagnosticInfo().code().equals(MODULE_NOT_FOUND_CODE)) {
+                int line = diagnostic.location().lineRange().startLine().line();
+                for (int i = 0; i < endLines.size(); i++) {
+                    if (line <= endLines.get(i)) {
+                        failedImports.add(i);
+                        break;
+                    }
+                }
+            }
+        }
+        Map<String, Boolean> resolutions = new LinkedHashMap<>();
+        for (int i = 0; i < moduleNames.size(); i++) {
+            resolutions.put(moduleNames.get(i), !failedImports.contains(i));
+        }
+        return resolutions;
+    }
+
     /**
      * This is an import. A test import is done to check for errors.
      * It should not give 'module not found' error.
@@ -318,37 +669,104 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
             throw new InvokerException();
         }
 
-        if (isImportStatementValid(importSnippet.toString())) {
+        if (isImportStatementValid(moduleName, importSnippet.toString())) {
+            recordImport(moduleName);
             return imports.storeImport(importSnippet);
         }
         throw new InvokerException();
     }
 
+    /**
+     * Finds the names of the variables defined in a variable declaration.
+     * Names are found from the syntax tree.
+     * Already defined names cannot be redefined.
+     *
+     * @param newSnippet New variable declaration snippet.
+     * @return Names of the new variables.
+     * @throws InvokerException If a variable is redeclared.
+     */
+    private Set<String> findNewVariableNames(VariableDeclarationSnippet newSnippet) throws InvokerException {
+        Set<String> variableNames = newSnippet.names();
+        for (String variableName : variableNames) {
+            if (GlobalVariable.isDefined(globalVars, variableName)) {
+                addDiagnostic(Diagnostic.error("Redeclared symbol '" + variableName + "'."));
+                throw new InvokerException();
+            }
+        }
+        return variableNames;
+    }
+
+    /**
+     * Finds the new variable of a declaration whose type is evident from the syntax.
+     * Types are inferred from the execution compilation, so this does not save a compilation,
+     * but such variables do not need a symbol lookup and type analysis after the compilation.
+     * The types are simple built-in types, so they are always visible and need no imports.
+     *
+     * @param newSnippet    Snippet that was compiled.
+     * @param variableNames Names of the new variables.
+     * @return The new variable if its type is known from the syntax.
+     */
+    private Optional<GlobalVariable> syntacticVariable(ExecutableSnippet newSnippet, Set<String> variableNames) {
+        if (!(newSnippet instanceof VariableDeclarationSnippet) || variableNames.size() != 1) {
+            return Optional.empty();
+        }
+        Optional<String> variableType = ((VariableDeclarationSnippet) newSnippet).syntacticType();
+        if (variableType.isEmpty()) {
+            return Optional.empty();
+        }
+        String variableName = variableNames.iterator().next();
+        this.newSymbols.add(new HashedSymbol(variableName, SymbolKind.VARIABLE));
+        addDiagnostic(Diagnostic.debug("Type of '" + variableName + "' found from the syntax."));
+        return Optional.of(new GlobalVariable(variableType.get(), variableName,
+                syntacticElevatedType(variableType.get())));
+    }
+
+    /**
+     * Elevated type of a simple built-in type (or an optional of it).
+     * Elevation is the same as the type analyzer gives: error is elevated to error,
+     * an optional error to any or error, and the other simple types (subtypes of anydata) to any.
+     *
+     * @param variableType Simple built-in type.
+     * @return Elevated type of the type.
+     */
+    private static ElevatedType syntacticElevatedType(String variableType) {
+        boolean optional = variableType.endsWith(OPTIONAL_SUFFIX);
+        String memberType = optional
+                ? variableType.substring(0, variableType.length() - OPTIONAL_SUFFIX.length())
+                : variableType;
+        if (!memberType.equals(ERROR_TYPE)) {
+            return ElevatedType.ANY;
+        }
+        return optional ? ElevatedType.ANY_ERROR : ElevatedType.ERROR;
+    }
+
     /**
      * Processes a variable declaration snippet.
      * We need to know all the variable types.
      * Some types (var) are determined at compile time.
-     * So we have to compile once and know the names and types of variables.
-     * Only compilation is done.
+     * The types are read from the compilation that was used to execute the snippet.
+     * The variables are local variables in the statements function of that program.
+     * Only the symbols of the new variables are looked up.
      *
-     * @param newSnippet New variable declaration snippet.
+     * @param project       Project that contains the executed program.
+     * @param compilation   Compilation of the executed program.
+     * @param variableNames Names of the new variables.
      * @return Exported found variable information (name and type)
      * @throws InvokerException If type/name inferring failed.
      */
-    private Set<GlobalVariable> processVarDcln(VariableDeclarationSnippet newSnippet) throws InvokerException {
-        // No matter the approach, compile. This will confirm that syntax is valid.
-        ClassLoadContext varTypeInferContext = createVarTypeInferContext(newSnippet);
-        SingleFileProject project = getProject(varTypeInferContext, DECLARATION_TEMPLATE_FILE);
-        Collection<Symbol> symbols = visibleUnknownSymbols(project);
+    private Set<GlobalVariable> processVarDcln(Project project, PackageCompilation compilation,
+                                               Set<String> variableNames) throws InvokerException {
+        Collection<Symbol> symbols = newVariableSymbols(project, compilation, variableNames);
 
         Set<GlobalVariable> foundVariables = new HashSet<>();
         for (Symbol symbol : symbols) {
             HashedSymbol hashedSymbol = new HashedSymbol(symbol);
-            String variableName = symbol.name();
+            String variableName = StringUtils.normalizedIdentifier(symbol.name());
 
             boolean ignoreSymbol = knownSymbols.contains(hashedSymbol)
+                    || !variableNames.contains(variableName)
                     || GlobalVariable.isDefined(foundVariables, variableName)
-                    || variableName.contains(DOLLAR);
+                    || symbol.name().contains(DOLLAR);
             boolean acceptableSymbol = symbol instanceof VariableSymbol
                     || symbol instanceof FunctionSymbol;
 
@@ -358,24 +776,27 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
                         ? ((VariableSymbol) symbol).typeDescriptor()
                         : ((FunctionSymbol) symbol).typeDescriptor();
 
-                TypeVisibilityVisitor visibilityVisitor = new TypeVisibilityVisitor();
-                ElevatedTypeTransformer elevatedTypeTransformer = new ElevatedTypeTransformer();
-                ElevatedType elevatedType = elevatedTypeTransformer.transformType(typeSymbol);
-                visibilityVisitor.visitType(typeSymbol);
+                TypeAnalysis typeAnalysis = typeAnalyzer.analyze(typeSymbol);
+                ElevatedType elevatedType = typeAnalysis.getElevatedType();
 
                 String variableType;
-                if (visibilityVisitor.isVisible()) {
-                    TypeSignatureTransformer signatureTransformer = new TypeSignatureTransformer(this);
-                    variableType = signatureTransformer.transformType(typeSymbol);
-                    this.newImplicitImports.addAll(signatureTransformer.getImplicitImportPrefixes());
+                Set<String> typeNames = Set.of();
+                Set<String> importPrefixes = Set.of();
+                if (typeAnalysis.isVisible()) {
+                    variableType = typeAnalysis.getSignature();
+                    typeNames = typeAnalysis.getReferredTypeNames();
+                    importPrefixes = typeAnalysis.getImplicitImportPrefixes().stream()
+                            .map(StringUtils::normalizedIdentifier).collect(Collectors.toSet());
+                    this.newImplicitImports.addAll(typeAnalysis.getImplicitImportPrefixes());
                 } else {
                     variableType = elevatedType.toString();
                     addDiagnostic(Diagnostic.warn("" +
-                            "Export types " + visibilityVisitor.getInvisibleTypes() + " are not visible for the REPL." +
+                            "Export types " + typeAnalysis.getInvisibleTypes() + " are not visible for the REPL." +
                             "\nWarning. Exported type not visible. Using '" + variableType + "' instead."));
                 }
 
-                foundVariables.add(new GlobalVariable(variableType, variableName, elevatedType));
+                foundVariables.add(new GlobalVariable(variableType, variableName, elevatedType,
+                        typeNames, importPrefixes));
                 this.newSymbols.add(hashedSymbol);
             }
         }
@@ -384,10 +805,12 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
     }
 
     /**
-     * Processes a variable declaration snippet.
-     * Symbols are processed to know the new module dcln.
-     * Only compilation is done.
-     * TODO: Support enums.
+     * Processes a module level declaration snippet.
+     * The name of the declaration is taken from the syntax tree.
+     * The declaration is only compiled to check its validity,
+     * unless the same program was already validated speculatively.
+     * Declarations without a name in the syntax tree (default xml namespaces) are
+     * named by the new symbol that is visible after the compilation.
      *
      * @param newSnippet New snippet to process.
      * @return The newly found type name and its declaration.
@@ -399,22 +822,27 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
         this.newImplicitImports.addAll(newSnippet.usedImports());
 
         ClassLoadContext varTypeInferContext = createModuleDclnNameInferContext(newSnippet);
-        SingleFileProject project = getProject(varTypeInferContext, DECLARATION_TEMPLATE_FILE);
-        Collection<Symbol> symbols = visibleUnknownSymbols(project);
-
-        Optional<String> enumName = newSnippet.enumName();
-        if (enumName.isPresent()) {
-            // Enum. Has to process as such. The code will be as is.
-            // Enums cannot be processed as normal because they are desugared in compilation.
-            // All new symbols are added as known.
-            symbols.stream().map(HashedSymbol::new).forEach(this.newSymbols::add);
-            return Map.entry(enumName.get(), newSnippet.toString());
-        } else {
-            for (Symbol symbol : symbols) {
-                if (!symbol.kind().equals(SymbolKind.MODULE)) {
-                    this.newSymbols.add(new HashedSymbol(symbol));
-                    return Map.entry(symbol.name(), newSnippet.toString());
-                }
+        String source = sourceEmitter.emitDeclaration(varTypeInferContext);
+
+        Optional<String> declaredName = newSnippet.declaredName();
+        if (declaredName.isPresent()) {
+            if (source.equals(validatedDeclarationSource)) {
+                addDiagnostic(Diagnostic.debug("Using speculatively validated declaration."));
+            } else {
+                compile(getProject(source));
+            }
+            this.newSymbols.add(new HashedSymbol(declaredName.get(), declarationSymbolKind(newSnippet)));
+            newSnippet.enumMemberNames().stream()
+                    .map(name -> new HashedSymbol(name, SymbolKind.CONSTANT))
+                    .forEach(this.newSymbols::add);
+            return Map.entry(declaredName.get(), newSnippet.toString());
+        }
+
+        Collection<Symbol> symbols = visibleUnknownSymbols(getProject(source));
+        for (Symbol symbol : symbols) {
+            if (symbol.kind().equals(SymbolKind.XMLNS)) {
+                this.newSymbols.add(new HashedSymbol(symbol));
+                return Map.entry(symbol.name(), newSnippet.toString());
             }
         }
 
@@ -423,123 +851,299 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
     }
 
     /**
-     * Creates a context which can be used to check import validation.
+     * Kind of the symbol a named module level declaration defines.
      *
-     * @param importString Import declaration snippet string.
-     * @return Context with import checking code.
+     * @param newSnippet Module level declaration.
+     * @return Kind of the declared symbol.
      */
-    protected ClassLoadContext createImportInferContext(String importString) {
-        return new ClassLoadContext(this.contextId, List.of(importString));
+    private SymbolKind declarationSymbolKind(ModuleMemberDeclarationSnippet newSnippet) {
+        switch (newSnippet.getSubKind()) {
+            case FUNCTION_DEFINITION:
+                return SymbolKind.FUNCTION;
+            case CLASS_DEFINITION:
+                return SymbolKind.CLASS;
+            case CONSTANT_DECLARATION:
+                return SymbolKind.CONSTANT;
+            case ANNOTATION_DECLARATION:
+                return SymbolKind.ANNOTATION;
+            case ENUM_DECLARATION:
+                return SymbolKind.ENUM;
+            case LISTENER_DECLARATION:
+                return SymbolKind.VARIABLE;
+            case MODULE_XML_NAMESPACE_DECLARATION:
+                return SymbolKind.XMLNS;
+            default:
+                return SymbolKind.TYPE_DEFINITION;
+        }
     }
 
     /**
-     * Creates a context which can be used to identify new variables.
+     * Creates a context which can be used to check import validation.
      *
-     * @param newSnippet New snippet. Must be a var dcln.
-     * @return Context with type information inferring code.
+     * @param importString Import declaration snippet string.
+     * @return Context with import checking code.
      */
-    protected ClassLoadContext createVarTypeInferContext(VariableDeclarationSnippet newSnippet) {
-        List<VariableContext> varDclns = globalVariableContexts();
-        List<String> moduleDclnStrings = new ArrayList<>(moduleDclns.values());
-
-        // Imports = snippet imports + module def imports
-        Set<String> importStrings = getUsedImportStatements(newSnippet);
-        importStrings.addAll(imports.getImplicitImports());
-        String lastVarDcln = newSnippet.toString();
-
-        return new ClassLoadContext(this.contextId, importStrings, moduleDclnStrings, varDclns, lastVarDcln);
+    protected ClassLoadContext createImportInferContext(String importString) {
+        return new ClassLoadContext(this.contextId, List.of(importString));
     }
 
     /**
      * Creates a context which can be used to find declaration name.
+     * Declarations that refer to the names of the new declaration are added as well,
+     * so that the new declaration is only valid if it does not break them.
      *
      * @param newSnippet New snippet. Must be a module member dcln.
      * @return Context to infer dcln name.
      */
     protected ClassLoadContext createModuleDclnNameInferContext(ModuleMemberDeclarationSnippet newSnippet) {
-        List<VariableContext> varDclns = globalVariableContexts();
-        List<String> moduleDclnStrings = new ArrayList<>(moduleDclns.values());
+        ReferenceGraph.Selection selection = referenceGraph.selectWithDependents(newSnippet, globalVars);
+        List<VariableContext> varDclns = globalVariableContexts(selection);
+        List<String> moduleDclnStrings = moduleDclnStrings(selection);
         moduleDclnStrings.add(newSnippet.toString());
 
         // Get all required imports
         Set<String> importStrings = getUsedImportStatements(newSnippet);
-        importStrings.addAll(imports.getImplicitImports());
+        importStrings.addAll(imports.getImports(selection.getImportPrefixes()));
 
         return new ClassLoadContext(this.contextId, importStrings, moduleDclnStrings, varDclns, null);
     }
 
     /**
-     * Creates the context object to be passed to template.
+     * Creates the context object to be passed to the source emitter.
      * The new snippets are not added here. Instead they are added to copies.
      * Only executable snippets are processed.
+     * Only the declarations, variables and imports the snippet depends on are added.
      *
-     * @param newSnippet   New snippet from user.
-     * @param newVariables Newly defined variables. Must be set if snippet is a var dcln.
+     * @param newSnippet       New snippet from user.
+     * @param newVariableNames Names of newly defined variables. Must be set if snippet is a var dcln.
      * @return Created context.
      */
     protected ClassLoadContext createExecutionContext(ExecutableSnippet newSnippet,
-                                                      Set<GlobalVariable> newVariables) {
-        List<VariableContext> variableDeclarations = globalVariableContexts();
+                                                      Set<String> newVariableNames) {
+        ReferenceGraph.Selection selection = referenceGraph.select(newSnippet, globalVars);
+        List<VariableContext> variableDeclarations = globalVariableContexts(selection);
+        List<String> moduleDclnStrings = moduleDclnStrings(selection);
         Set<String> importStrings = getUsedImportStatements(newSnippet);
-        importStrings.addAll(imports.getImplicitImports());
+        importStrings.addAll(imports.getImports(selection.getImportPrefixes()));
 
         if (newSnippet.isVariableDeclaration()) {
-            newVariables.stream().map(VariableContext::newVar)
+            newVariableNames.stream().map(VariableContext::newVar)
                     .forEach(variableDeclarations::add);
-            return new ClassLoadContext(this.contextId, importStrings, moduleDclns.values(),
+            return new ClassLoadContext(this.contextId, importStrings, moduleDclnStrings,
                     variableDeclarations, newSnippet.toString(), null);
         } else {
             StatementContext lastStatement = new StatementContext(newSnippet);
-            return new ClassLoadContext(this.contextId, importStrings, moduleDclns.values(),
+            return new ClassLoadContext(this.contextId, importStrings, moduleDclnStrings,
                     variableDeclarations, null, lastStatement);
         }
     }
 
     /**
      * Global variables as required by contexts.
+     * Variables that were not selected are left out.
+     * (Their values stay in the memory untouched.)
+     * Only the variables that may be assigned are written back to the memory.
      *
+     * @param selection Selection of the current snippet.
      * @return Global variable declarations list.
      */
-    private List<VariableContext> globalVariableContexts() {
+    private List<VariableContext> globalVariableContexts(ReferenceGraph.Selection selection) {
         List<VariableContext> varDclns = new ArrayList<>();
-        globalVars.stream().map(VariableContext::oldVar).forEach(varDclns::add);
+        globalVars.stream().filter(selection.getVariables()::contains)
+                .map(globalVar -> VariableContext.oldVar(globalVar, selection.isAssigned(globalVar)))
+                .forEach(varDclns::add);
         return varDclns;
     }
 
     /**
-     * Get the project with the context data.
+     * Module level declarations as required by contexts.
+     * Declarations that were not selected are left out.
      *
-     * @param context      Context to create the ballerina file.
-     * @param templateFile Template file to load.
-     * @return Created ballerina project.
-     * @throws InvokerException If file writing failed.
+     * @param selection Selection of the current snippet.
+     * @return Module level declarations list.
      */
-    protected SingleFileProject getProject(Object context, String templateFile) throws InvokerException {
-        Template template = super.getTemplate(templateFile);
-        try (StringWriter stringWriter = new StringWriter()) {
-            template.process(context, stringWriter);
-            return getProject(stringWriter.toString());
-        } catch (TemplateException e) {
-            addDiagnostic(Diagnostic.error("Template processing failed: " + e.getMessage()));
-            throw new InvokerException(e);
+    private List<String> moduleDclnStrings(ReferenceGraph.Selection selection) {
+        List<String> moduleDclnStrings = new ArrayList<>();
+        moduleDclns.entrySet().stream().filter(entry -> selection.getDeclarationKeys().contains(entry.getKey()))
+                .map(Map.Entry::getValue).forEach(moduleDclnStrings::add);
+        return moduleDclnStrings;
+    }
+
+    /**
+     * Get the compiled program of the given source.
+     * If the same source was compiled previously, the cached program is used.
+     * Otherwise the source is compiled and code generated.
+     * New variables are inferred from the same compilation and the program is cached.
+     *
+     * @param source        Generated source to compile.
+     * @param newSnippet    Snippet the source was generated for.
+     * @param variableNames Names of the new variables. Empty if the snippet is not a var dcln.
+     * @return Compiled program.
+     * @throws InvokerException If compilation failed.
+     */
+    protected CompiledProgram getCompiledProgram(String source, ExecutableSnippet newSnippet,
+                                                 Set<String> variableNames)
+            throws InvokerException {
+        Optional<CompiledProgram> cachedProgram = compiledPrograms.get(source);
+        if (cachedProgram.isPresent() && restoreCompiledProgram(cachedProgram.get())) {
+            addDiagnostic(Diagnostic.debug("Using previously compiled program."));
+            return cachedProgram.get();
+        }
+        Optional<CompiledProgram> storedProgram = loadStoredProgram(source);
+        if (storedProgram.isPresent() && restoreCompiledProgram(storedProgram.get())) {
+            addDiagnostic(Diagnostic.debug("Using compiled program from the artifact store."));
+            compiledPrograms.put(source, storedProgram.get());
+            return storedProgram.get();
+        }
+
+        int diagnosticsStart = diagnostics().size();
+        Project project = timedOperation("building project", () -> getProject(source));
+        PackageCompilation compilation = timedOperation("compilation", () -> compile(project));
+        JBallerinaBackend jBallerinaBackend = timedOperation("backend fetch",
+                () -> JBallerinaBackend.from(compilation, JvmTarget.JAVA_11));
+
+        Module executableModule = project.currentPackage().getDefaultModule();
+        String initClassName = JarResolver.getQualifiedClassName(
+                executableModule.packageInstance().packageOrg().toString(),
+                executableModule.packageInstance().packageName().toString(),
+                executableModule.packageInstance().packageVersion().toString(),
+                MODULE_INIT_CLASS_NAME);
+        Path moduleJar = jBallerinaBackend.codeGeneratedLibrary(executableModule.packageInstance().packageId(),
+                executableModule.moduleName()).path();
+        List<Path> dependencyJars = jBallerinaBackend.jarResolver().getJarFilePathsRequiredForExecution()
+                .stream().filter(path -> !path.equals(moduleJar)).collect(Collectors.toList());
+
+        Optional<GlobalVariable> typedVariable = syntacticVariable(newSnippet, variableNames);
+        Set<GlobalVariable> newVariables = variableNames.isEmpty() ? Set.of()
+                : typedVariable.isPresent() ? Set.of(typedVariable.get())
+                : timedOperation("processing var dcln", () -> processVarDcln(project, compilation, variableNames));
+        Map<String, String> implicitImports = new HashMap<>();
+        newImplicitImports.forEach(prefix -> implicitImports.put(prefix, imports.moduleName(prefix)));
+        List<Diagnostic> warnings = diagnostics().stream().skip(diagnosticsStart)
+                .filter(diagnostic -> diagnostic.getKind() == DiagnosticKind.WARN)
+                .collect(Collectors.toList());
+
+        // Module jar will be overwritten by the next code generation. So keep a copy.
+        // (Import checks done when processing var dcln do not generate code.)
+        try {
+            Path retainedJar = compiledPrograms.retainJar(moduleJar);
+            CompiledProgram program = new CompiledProgram(initClassName, dependencyJars, retainedJar,
+                    newVariables, newSymbols, implicitImports, warnings);
+            compiledPrograms.put(source, program);
+            storeProgram(source, program);
+            return program;
         } catch (IOException e) {
-            addDiagnostic(Diagnostic.error("File generation failed: " + e.getMessage()));
+            addDiagnostic(Diagnostic.error("Retaining compiled program failed: " + e.getMessage()));
             throw new InvokerException(e);
         }
     }
 
+    /**
+     * Loads a program compiled for the source from the artifact store.
+     * The stored jar is copied, since another shell may evict it.
+     * Any failure is treated as if the program was not stored.
+     *
+     * @param source Generated source.
+     * @return Stored program.
+     */
+    private Optional<CompiledProgram> loadStoredProgram(String source) {
+        Optional<byte[]> metadata = artifactStore.loadMetadata(source);
+        Optional<Path> storedJar = artifactStore.jar(source);
+        if (metadata.isEmpty() || storedJar.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            Path retainedJar = compiledPrograms.retainJar(storedJar.get());
+            return Optional.of(CompiledProgram.fromMetadata(metadata.get(), retainedJar));
+        } catch (IOException e) {
+            addDiagnostic(Diagnostic.debug("Loading stored program failed: " + e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves a compiled program to the artifact store.
+     * Failures are ignored since the store is only an optimization.
+     *
+     * @param source  Generated source.
+     * @param program Program compiled from the source.
+     */
+    private void storeProgram(String source, CompiledProgram program) {
+        try {
+            artifactStore.store(source, program.toMetadata(), program.getModuleJar());
+        } catch (IOException e) {
+            addDiagnostic(Diagnostic.debug("Storing compiled program failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Loads the known symbols of the initial program from the startup snapshot.
+     *
+     * @param source Initial program source.
+     * @return Snapshot symbols.
+     */
+    private Optional<Set<HashedSymbol>> loadSnapshotSymbols(String source) {
+        try {
+            return startupSnapshot.knownSymbols(source);
+        } catch (IOException e) {
+            addDiagnostic(Diagnostic.debug("Loading startup snapshot failed: " + e.getMessage()));
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Saves the known symbols of the initial program to the startup snapshot.
+     *
+     * @param source  Initial program source.
+     * @param symbols Symbols to save.
+     */
+    private void saveSnapshotSymbols(String source, Collection<HashedSymbol> symbols) {
+        try {
+            startupSnapshot.save(source, symbols);
+        } catch (IOException e) {
+            addDiagnostic(Diagnostic.debug("Saving startup snapshot failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Restores the information that was inferred when the program was compiled.
+     * A program cannot be reused if its implicit imports conflict with the current imports.
+     *
+     * @param program Previously compiled program.
+     * @return Whether the program can be reused.
+     */
+    private boolean restoreCompiledProgram(CompiledProgram program) {
+        for (Map.Entry<String, String> entry : program.getImplicitImports().entrySet()) {
+            String prefix = entry.getKey();
+            String moduleName = entry.getValue();
+            boolean sameImport = imports.moduleImported(moduleName) && imports.prefix(moduleName).equals(prefix);
+            boolean freeImport = !imports.moduleImported(moduleName) && !imports.containsPrefix(prefix);
+            if (!sameImport && !freeImport) {
+                return false;
+            }
+        }
+        program.getImplicitImports().forEach(imports::storeImport);
+        newImplicitImports.addAll(program.getImplicitImports().keySet());
+        newSymbols.addAll(program.getNewSymbols());
+        addAllDiagnostics(program.getWarnings());
+        return true;
+    }
+
     /**
      * Get the project with the context data.
+     * The project is loaded from the buffer file only once per invoker.
+     * Afterwards, the source is applied as new content of the document of the same project
+     * without going through the file system. So the compiler can reuse the state it already loaded.
+     * The source is still written to the buffer file if source dumping is enabled.
      *
      * @param source Source to use for generating project.
-     * @return Created ballerina project.
+     * @return Project containing the source.
      * @throws InvokerException If file writing failed.
      */
-    protected SingleFileProject getProject(String source) throws InvokerException {
+    protected Project getProject(String source) throws InvokerException {
+        awaitBackendWarmUp();
         try {
-            File mainBal = writeToFile(source);
-            BuildOptions buildOptions = new BuildOptionsBuilder().offline(true).build();
-            return SingleFileProject.load(mainBal.toPath(), buildOptions);
+            return applySource(source);
         } catch (IOException e) {
             addDiagnostic(Diagnostic.error("File writing failed: " + e.getMessage()));
             throw new InvokerException(e);
@@ -547,34 +1151,55 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
     }
 
     /**
-     * Executes a compiled project.
-     * It is expected that the project had no compiler errors.
+     * Applies the source to the session project.
+     * The session project is loaded from the buffer file if it was not loaded yet.
+     *
+     * @param source Source to use for generating project.
+     * @return Session project containing the source.
+     * @throws IOException If file writing failed.
+     */
+    private Project applySource(String source) throws IOException {
+        if (this.sessionProject == null) {
+            File mainBal = writeToFile(source);
+            BuildOptions buildOptions = new BuildOptionsBuilder().offline(true).build();
+            this.sessionProject = SingleFileProject.load(mainBal.toPath(), buildOptions);
+            return this.sessionProject;
+        }
+
+        dumpSource(source);
+        // Modify the document in place. Project will point to the new package.
+        Module module = this.sessionProject.currentPackage().getDefaultModule();
+        Optional<DocumentId> documentId = module.documentIds().stream().findFirst();
+        assert documentId.isPresent();
+        Document document = module.document(documentId.get()).modify().withContent(source).apply();
+        this.sessionProject = document.module().project();
+        return this.sessionProject;
+    }
+
+    /**
+     * Executes a compiled program.
      * The process is run and the stdout is collected and printed.
      * Due to ballerina calling system.exit(), we need to disable these calls and
      * remove system error logs as well.
      *
-     * @param project           Project to run.
-     * @param jBallerinaBackend Backed to use.
+     * @param program Program to run.
      * @return Whether process execution was successful.
      * @throws InvokerException If execution failed.
      */
-    protected boolean executeProject(Project project, JBallerinaBackend jBallerinaBackend) throws InvokerException {
+    protected boolean executeProgram(CompiledProgram program) throws InvokerException {
         try {
-            Module executableModule = project.currentPackage().getDefaultModule();
-            JarResolver jarResolver = jBallerinaBackend.jarResolver();
-            ClassLoader classLoader = jarResolver.getClassLoaderWithRequiredJarFilesForExecution();
-
-            String initClassName = JarResolver.getQualifiedClassName(
-                    executableModule.packageInstance().packageOrg().toString(),
-                    executableModule.packageInstance().packageName().toString(),
-                    executableModule.packageInstance().packageVersion().toString(),
-                    MODULE_INIT_CLASS_NAME);
-            Class<?> clazz = classLoader.loadClass(initClassName);
+            InvokerMemory.setCurrentContextId(contextId);
+            ClassLoader parentClassLoader = dependencyClassLoader.get(program.getDependencyJars());
+            ClassLoader classLoader = program.classLoader(parentClassLoader);
+            Class<?> clazz = classLoader.loadClass(program.getInitClassName());
 
             Method method = clazz.getDeclaredMethod(MODULE_MAIN_METHOD_NAME, String[].class);
             int exitCode = invokeMethod(method);
             addDiagnostic(Diagnostic.debug("Exit code was " + exitCode));
             return exitCode == 0;
+        } catch (MalformedURLException e) {
+            addDiagnostic(Diagnostic.error("Dependency path is invalid: " + e.getMessage()));
+            throw new InvokerException(e);
         } catch (ClassNotFoundException e) {
             addDiagnostic(Diagnostic.error("Main class not found: " + e.getMessage()));
             throw new InvokerException(e);
@@ -589,26 +1214,86 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
 
     /**
      * Tries to import using the given statement.
+     * A previous outcome of resolving the module or the repository index
+     * is used instead if either can tell whether the module resolves.
      *
+     * @param moduleName      Name of the imported module.
      * @param importStatement Import statement to use.
      * @return Whether import is valid.
      * @throws InvokerException If import file writing failed.
      */
-    private boolean isImportStatementValid(String importStatement) throws InvokerException {
+    private boolean isImportStatementValid(String moduleName, String importStatement) throws InvokerException {
+        Optional<Boolean> knownResolution = knownImportResolution(moduleName);
+        if (knownResolution.isPresent()) {
+            if (!knownResolution.get()) {
+                addDiagnostic(Diagnostic.error("Import resolution failed. Module not found."));
+            }
+            return knownResolution.get();
+        }
+
         ClassLoadContext importCheckingContext = createImportInferContext(importStatement);
-        SingleFileProject project = getProject(importCheckingContext, IMPORT_TEMPLATE_FILE);
+        Project project = getProject(sourceEmitter.emitImport(importCheckingContext));
         PackageCompilation compilation = project.currentPackage().getCompilation();
 
         // Detect if import is valid.
         for (io.ballerina.tools.diagnostics.Diagnostic diagnostic : compilation.diagnosticResult().diagnostics()) {
             if (diagnostic.diagnosticInfo().code().equals(MODULE_NOT_FOUND_CODE)) {
                 addDiagnostic(Diagnostic.error("Import resolution failed. Module not found."));
+                storeImportResolution(moduleName, false);
                 return false;
             }
         }
+        storeImportResolution(moduleName, true);
         return true;
     }
 
+    /**
+     * Finds whether a module resolves without compiling.
+     * Previous outcomes are checked first and the repository index afterwards.
+     * Modules that were not found are only known as long as the repository does not change.
+     *
+     * @param moduleName Name of the imported module.
+     * @return Whether the module resolves, if it is known.
+     */
+    private Optional<Boolean> knownImportResolution(String moduleName) {
+        Optional<Boolean> previousResolution = importResolutions.resolution(moduleName, moduleIndex.fingerprint());
+        if (previousResolution.isPresent()) {
+            return previousResolution;
+        }
+        Optional<Boolean> indexedResolution = moduleIndex.resolution(moduleName);
+        indexedResolution.ifPresent(resolved -> storeImportResolution(moduleName, resolved));
+        return indexedResolution;
+    }
+
+    /**
+     * Counts an import in the import histogram.
+     * Failures are ignored since the histogram is only used to warm up.
+     *
+     * @param moduleName Name of the imported module.
+     */
+    private void recordImport(String moduleName) {
+        try {
+            importHistogram.record(moduleName);
+        } catch (IOException e) {
+            addDiagnostic(Diagnostic.debug("Recording import failed: " + e.getMessage()));
+        }
+    }
+
+    /**
+     * Remembers the outcome of resolving a module in the current repository.
+     * Failures are ignored since the cache is only an optimization.
+     *
+     * @param moduleName Name of the imported module.
+     * @param resolved   Whether the module resolved.
+     */
+    private void storeImportResolution(String moduleName, boolean resolved) {
+        try {
+            importResolutions.store(moduleName, resolved, moduleIndex.fingerprint());
+        } catch (IOException e) {
+            addDiagnostic(Diagnostic.debug("Storing import resolution failed: " + e.getMessage()));
+        }
+    }
+
     /**
      * Gets the symbols that are visible to main method but are unknown (previously not seen).
      * Compilation is also done.
@@ -627,8 +1312,24 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
      * @param project     Project to get symbols.
      * @param compilation Compilation object.
      * @return All the visible symbols.
+     * @throws InvokerException If the main function is not found.
      */
-    protected Collection<Symbol> visibleUnknownSymbols(Project project, PackageCompilation compilation) {
+    protected Collection<Symbol> visibleUnknownSymbols(Project project, PackageCompilation compilation)
+            throws InvokerException {
+        return visibleUnknownSymbols(project, compilation, MODULE_MAIN_METHOD_NAME);
+    }
+
+    /**
+     * Gets the symbols that are visible at the end of the given function but are unknown (previously not seen).
+     *
+     * @param project      Project to get symbols.
+     * @param compilation  Compilation object.
+     * @param functionName Name of the function to find the symbols at the end of.
+     * @return All the visible symbols.
+     * @throws InvokerException If the function is not found.
+     */
+    protected Collection<Symbol> visibleUnknownSymbols(Project project, PackageCompilation compilation,
+                                                       String functionName) throws InvokerException {
         // Get the document associated with project
         Module module = project.currentPackage().getDefaultModule();
         ModuleId moduleId = module.moduleId();
@@ -637,14 +1338,9 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
         Document document = module.document(documentId.get());
 
         // Find the position of cursor to find the symbols
-        // Get the position of the main function, line start of the close brace (after anything in main body)
-        ModulePartNode modulePartNode = document.syntaxTree().rootNode();
-        NodeList<ModuleMemberDeclarationNode> declarationNodes = modulePartNode.members();
-        ModuleMemberDeclarationNode declarationSnippet = declarationNodes.get(declarationNodes.size() - 1);
-        assert declarationSnippet instanceof FunctionDefinitionNode;
-        FunctionBodyNode bodyNode = ((FunctionDefinitionNode) declarationSnippet).functionBody();
-        assert bodyNode instanceof FunctionBodyBlockNode;
-        LinePosition cursorPos = ((FunctionBodyBlockNode) bodyNode).closeBraceToken().lineRange().startLine();
+        // Get the position of the function, line start of the close brace (after anything in function body)
+        FunctionBodyBlockNode bodyNode = functionBody(document, functionName);
+        LinePosition cursorPos = bodyNode.closeBraceToken().lineRange().startLine();
 
         return compilation.getSemanticModel(moduleId)
                 .visibleSymbols(document.name(), cursorPos).stream()
@@ -652,6 +1348,67 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Gets the symbols of the new variables declared in the statements function.
+     * Symbols are resolved at the positions of the variable names,
+     * so the cost does not depend on the number of visible symbols.
+     *
+     * @param project       Project to get symbols.
+     * @param compilation   Compilation object.
+     * @param variableNames Names of the new variables.
+     * @return Symbols of the new variables.
+     * @throws InvokerException If the statements function is not found.
+     */
+    protected Collection<Symbol> newVariableSymbols(Project project, PackageCompilation compilation,
+                                                    Set<String> variableNames) throws InvokerException {
+        Module module = project.currentPackage().getDefaultModule();
+        Optional<DocumentId> documentId = module.documentIds().stream().findFirst();
+        assert documentId.isPresent();
+        Document document = module.document(documentId.get());
+        SemanticModel semanticModel = compilation.getSemanticModel(module.moduleId());
+
+        List<Symbol> symbols = new ArrayList<>();
+        for (StatementNode statementNode : functionBody(document, MODULE_STMTS_METHOD_NAME).statements()) {
+            if (!(statementNode instanceof VariableDeclarationNode)) {
+                continue;
+            }
+            VariableDeclarationNode dclnNode = (VariableDeclarationNode) statementNode;
+            Map<String, Token> nameTokens = VariableDeclarationSnippet
+                    .bindingNameTokens(dclnNode.typedBindingPattern().bindingPattern());
+            for (Map.Entry<String, Token> entry : nameTokens.entrySet()) {
+                if (variableNames.contains(entry.getKey())) {
+                    LinePosition namePos = entry.getValue().lineRange().startLine();
+                    semanticModel.symbol(document.name(), namePos).ifPresent(symbols::add);
+                }
+            }
+        }
+        return symbols;
+    }
+
+    /**
+     * Finds the block body of a function of the generated program.
+     *
+     * @param document     Document of the generated program.
+     * @param functionName Name of the function.
+     * @return Body of the function.
+     * @throws InvokerException If the function is not found.
+     */
+    private FunctionBodyBlockNode functionBody(Document document, String functionName) throws InvokerException {
+        ModulePartNode modulePartNode = document.syntaxTree().rootNode();
+        for (ModuleMemberDeclarationNode declarationNode : modulePartNode.members()) {
+            if (declarationNode instanceof FunctionDefinitionNode) {
+                FunctionDefinitionNode functionNode = (FunctionDefinitionNode) declarationNode;
+                FunctionBodyNode bodyNode = functionNode.functionBody();
+                if (functionNode.functionName().text().equals(functionName)
+                        && bodyNode instanceof FunctionBodyBlockNode) {
+                    return (FunctionBodyBlockNode) bodyNode;
+                }
+            }
+        }
+        addDiagnostic(Diagnostic.error("Function " + functionName + " not found in the generated program."));
+        throw new InvokerException();
+    }
+
     /**
      * Return import strings used by this snippet.
      *
@@ -699,6 +1456,17 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
 
     // Available statements
 
+    @Override
+    public List<String> cacheStatistics() {
+        List<String> statistics = new ArrayList<>(compiledPrograms.statistics());
+        statistics.addAll(artifactStore.statistics());
+        statistics.addAll(importResolutions.statistics());
+        statistics.addAll(moduleIndex.statistics());
+        statistics.addAll(dependencyClassLoader.statistics());
+        statistics.addAll(typeAnalyzer.statistics());
+        return statistics;
+    }
+
     @Override
     public List<String> availableImports() {
         // Imports with prefixes
@@ -714,7 +1482,7 @@ public class ClassLoadInvoker extends Invoker implements ImportProcessor {
         // Available variables and values as string.
         List<String> varStrings = new ArrayList<>();
         for (GlobalVariable entry : globalVars) {
-            Object obj = InvokerMemory.recall(contextId, entry.getVariableName());
+            Object obj = InvokerMemory.recall(contextId, StringUtils.escapedIdentifier(entry.getVariableName()));
             String value = StringUtils.shortenedString(obj);
             String varString = String.format("(%s) %s %s = %s",
                     entry.getVariableName(), entry.getType(), entry.getVariableName(), value);
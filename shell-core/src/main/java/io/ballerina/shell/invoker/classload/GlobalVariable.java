@@ -1,22 +1,41 @@
 package io.ballerina.shell.invoker.classload;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.Objects;
+import java.util.Set;
 
 /**
  * A global variable in the REPL.
  * Needs information such as variable name, its code and
  * whether it is an any/error/(any|error)
+ * Variable names are kept without the quote and escapes, as given by
+ * {@link io.ballerina.shell.utils.StringUtils#normalizedIdentifier}.
+ * The names of the REPL types and the (unquoted) import prefixes the type refers
+ * are found when the type is analyzed, so that the declarations and imports
+ * the variable needs can be found without parsing the type.
  */
 public class GlobalVariable {
     private final String type;
     private final String variableName;
     private final ElevatedType elevatedType;
+    private final Set<String> typeNames;
+    private final Set<String> importPrefixes;
 
     public GlobalVariable(String type, String variableName, ElevatedType elevatedType) {
+        this(type, variableName, elevatedType, Set.of(), Set.of());
+    }
+
+    public GlobalVariable(String type, String variableName, ElevatedType elevatedType,
+                          Set<String> typeNames, Set<String> importPrefixes) {
         this.type = type;
         this.variableName = variableName;
         this.elevatedType = elevatedType;
+        this.typeNames = Set.copyOf(typeNames);
+        this.importPrefixes = Set.copyOf(importPrefixes);
     }
 
     /**
@@ -30,6 +49,51 @@ public class GlobalVariable {
         return globalVariables.contains(new GlobalVariable("", variableName, null));
     }
 
+    /**
+     * Writes the variable so that it can be read back later.
+     *
+     * @param output Output to write to.
+     * @throws IOException If writing failed.
+     */
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeUTF(type);
+        output.writeUTF(variableName);
+        output.writeUTF(elevatedType.name());
+        writeNames(output, typeNames);
+        writeNames(output, importPrefixes);
+    }
+
+    /**
+     * Reads a variable that was written by {@code writeTo}.
+     *
+     * @param input Input to read from.
+     * @return Read variable.
+     * @throws IOException If reading failed.
+     */
+    public static GlobalVariable readFrom(DataInput input) throws IOException {
+        String type = input.readUTF();
+        String variableName = input.readUTF();
+        ElevatedType elevatedType = ElevatedType.valueOf(input.readUTF());
+        Set<String> typeNames = readNames(input);
+        Set<String> importPrefixes = readNames(input);
+        return new GlobalVariable(type, variableName, elevatedType, typeNames, importPrefixes);
+    }
+
+    private static void writeNames(DataOutput output, Set<String> names) throws IOException {
+        output.writeInt(names.size());
+        for (String name : names) {
+            output.writeUTF(name);
+        }
+    }
+
+    private static Set<String> readNames(DataInput input) throws IOException {
+        Set<String> names = new HashSet<>();
+        for (int i = input.readInt(); i > 0; i--) {
+            names.add(input.readUTF());
+        }
+        return names;
+    }
+
     public String getType() {
         return type;
     }
@@ -42,6 +106,14 @@ public class GlobalVariable {
         return elevatedType;
     }
 
+    public Set<String> getTypeNames() {
+        return typeNames;
+    }
+
+    public Set<String> getImportPrefixes() {
+        return importPrefixes;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
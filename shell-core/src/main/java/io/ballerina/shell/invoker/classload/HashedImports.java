@@ -23,10 +23,12 @@ import io.ballerina.compiler.syntax.tree.SyntaxKind;
 import io.ballerina.shell.snippet.types.ImportDeclarationSnippet;
 import io.ballerina.shell.utils.StringUtils;
 
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Objects;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Imports that were stored to be able to search with the prefix.
@@ -79,6 +81,31 @@ public class HashedImports {
         storeImplicitPrefix(JAVA_IMPORT.getPrefix());
     }
 
+    /**
+     * Copy of the remembered imports, which is not changed by later changes to these imports.
+     *
+     * @return Copy of the imports.
+     */
+    public HashedImports copy() {
+        HashedImports copy = new HashedImports();
+        copy.restore(this);
+        return copy;
+    }
+
+    /**
+     * Replace the remembered imports with the imports of the given copy.
+     *
+     * @param other Imports to restore.
+     */
+    public void restore(HashedImports other) {
+        this.imports.clear();
+        this.imports.putAll(other.imports);
+        this.reverseImports.clear();
+        this.reverseImports.putAll(other.reverseImports);
+        this.implicitImportPrefixes.clear();
+        this.implicitImportPrefixes.addAll(other.implicitImportPrefixes);
+    }
+
     /**
      * Get the import statement of the given prefix.
      *
@@ -125,6 +152,16 @@ public class HashedImports {
         return this.reverseImports.get(moduleName);
     }
 
+    /**
+     * Get the module name imported with the given prefix.
+     *
+     * @param prefix Prefix to search.
+     * @return Module name in 'orgName/module' format.
+     */
+    public String moduleName(String prefix) {
+        return this.imports.get(StringUtils.quoted(prefix));
+    }
+
     /**
      * Add the prefix and import to the set of remembered imports.
      *
@@ -179,4 +216,22 @@ public class HashedImports {
                 .filter(Objects::nonNull).forEach(importStrings::add);
         return importStrings;
     }
+
+    /**
+     * Import statements of the given prefixes that were remembered.
+     * Unknown prefixes are ignored. The java import is always included.
+     *
+     * @param prefixes Prefixes to import. Can be quoted or unquoted.
+     * @return Set of import statements.
+     */
+    public Set<String> getImports(Collection<String> prefixes) {
+        Set<String> normalizedPrefixes = prefixes.stream()
+                .map(StringUtils::normalizedIdentifier).collect(Collectors.toSet());
+        normalizedPrefixes.add(JAVA_IMPORT.getPrefix());
+        Set<String> importStrings = new HashSet<>();
+        this.imports.keySet().stream()
+                .filter(prefix -> normalizedPrefixes.contains(StringUtils.normalizedIdentifier(prefix)))
+                .map(this::getImport).filter(Objects::nonNull).forEach(importStrings::add);
+        return importStrings;
+    }
 }
@@ -21,6 +21,9 @@ package io.ballerina.shell.invoker.classload;
 import io.ballerina.compiler.api.symbols.Symbol;
 import io.ballerina.compiler.api.symbols.SymbolKind;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Objects;
 
 /**
@@ -42,6 +45,43 @@ public class HashedSymbol {
         this.kind = symbol.kind();
     }
 
+    public HashedSymbol(String name, SymbolKind kind) {
+        this.name = name;
+        this.kind = kind;
+    }
+
+    /**
+     * Writes the symbol so that it can be read back later.
+     *
+     * @param output Output to write to.
+     * @throws IOException If writing failed.
+     */
+    public void writeTo(DataOutput output) throws IOException {
+        output.writeUTF(name);
+        output.writeUTF(kind.name());
+    }
+
+    /**
+     * Reads a symbol that was written by {@code writeTo}.
+     *
+     * @param input Input to read from.
+     * @return Read symbol.
+     * @throws IOException If reading failed.
+     */
+    public static HashedSymbol readFrom(DataInput input) throws IOException {
+        String name = input.readUTF();
+        SymbolKind kind = SymbolKind.valueOf(input.readUTF());
+        return new HashedSymbol(name, kind);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SymbolKind getKind() {
+        return kind;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,254 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.invoker.classload;
+
+import io.ballerina.shell.snippet.Snippet;
+import io.ballerina.shell.snippet.types.ModuleMemberDeclarationSnippet;
+import io.ballerina.shell.utils.StringUtils;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+
+/**
+ * Keeps track of the names each module level declaration defines and refers.
+ * Used to find the declarations, global variables and imports a snippet depends on,
+ * so that the generated program only contains what the snippet can reach.
+ * <p>
+ * References are found from identifiers of the syntax tree, without semantic analysis.
+ * So the selection is an over-approximation. (Field names, parameter names etc...
+ * are taken as references too.) This only adds some unused declarations to the program.
+ * Declarations that take effect without being referred by a name (listeners, xml namespaces)
+ * are always selected.
+ * <p>
+ * Types of the global variables are not parsed. The REPL types and imports a variable needs
+ * are recorded in the variable when its type is analyzed.
+ * <p>
+ * Names that the selected code may assign are tracked as well,
+ * so that only those variables have to be written back to the memory.
+ * <p>
+ * A new module level declaration may also break the declarations that refer to the names it defines,
+ * so those are selected as well when it is validated.
+ */
+public class ReferenceGraph {
+    private final Map<String, Declaration> declarations;
+    /**
+     * Map of a name to the keys of declarations that define it.
+     */
+    private final Map<String, Set<String>> definitions;
+    /**
+     * Map of a name to the keys of declarations that refer it.
+     */
+    private final Map<String, Set<String>> referrers;
+
+    public ReferenceGraph() {
+        this.declarations = new HashMap<>();
+        this.definitions = new HashMap<>();
+        this.referrers = new HashMap<>();
+    }
+
+    /**
+     * Remembers the references of a module level declaration.
+     * A declaration with the same key replaces the previous one.
+     *
+     * @param key     Key the declaration was saved as.
+     * @param snippet Declaration snippet.
+     */
+    public void addDeclaration(String key, ModuleMemberDeclarationSnippet snippet) {
+        Set<String> definedNames = new HashSet<>(snippet.enumMemberNames());
+        definedNames.add(StringUtils.normalizedIdentifier(key));
+        Declaration declaration = new Declaration(definedNames, snippet.referencedNames(),
+                snippet.assignedNames(), snippet.usedImports(), !snippet.isReferredByName());
+
+        Declaration previous = declarations.put(key, declaration);
+        if (previous != null) {
+            previous.definedNames.forEach(name -> definitions.getOrDefault(name, new HashSet<>()).remove(key));
+            previous.referencedNames.forEach(name -> referrers.getOrDefault(name, new HashSet<>()).remove(key));
+        }
+        definedNames.forEach(name -> definitions.computeIfAbsent(name, k -> new HashSet<>()).add(key));
+        declaration.referencedNames.forEach(name -> referrers.computeIfAbsent(name, k -> new HashSet<>()).add(key));
+    }
+
+    /**
+     * Forget all the declarations.
+     */
+    public void clear() {
+        this.declarations.clear();
+        this.definitions.clear();
+        this.referrers.clear();
+    }
+
+    /**
+     * Finds everything the snippet depends on, directly or through other declarations.
+     *
+     * @param snippet    Snippet that would be run or compiled.
+     * @param globalVars All the global variables.
+     * @return Selected declaration keys, variables, assigned names and import prefixes.
+     */
+    public Selection select(Snippet snippet, Collection<GlobalVariable> globalVars) {
+        return select(snippet, Set.of(), globalVars);
+    }
+
+    /**
+     * Finds everything a new module level declaration depends on, along with
+     * the declarations that refer to the names it defines, directly or through other declarations.
+     * Such declarations may not compile anymore if the new declaration is added.
+     *
+     * @param snippet    Module level declaration that would be validated.
+     * @param globalVars All the global variables.
+     * @return Selected declaration keys, variables, assigned names and import prefixes.
+     */
+    public Selection selectWithDependents(ModuleMemberDeclarationSnippet snippet,
+                                          Collection<GlobalVariable> globalVars) {
+        Queue<String> pendingNames = new ArrayDeque<>(snippet.enumMemberNames());
+        snippet.declaredName().map(StringUtils::normalizedIdentifier).ifPresent(pendingNames::add);
+        Set<String> visitedNames = new HashSet<>();
+        Set<String> dependentKeys = new HashSet<>();
+        while (!pendingNames.isEmpty()) {
+            String name = pendingNames.poll();
+            if (!visitedNames.add(name)) {
+                continue;
+            }
+            for (String key : referrers.getOrDefault(name, Set.of())) {
+                if (dependentKeys.add(key)) {
+                    pendingNames.addAll(declarations.get(key).definedNames);
+                }
+            }
+        }
+        return select(snippet, dependentKeys, globalVars);
+    }
+
+    /**
+     * Finds everything the snippet and the given declarations depend on.
+     *
+     * @param snippet         Snippet that would be run or compiled.
+     * @param declarationKeys Keys of the declarations to select along with the snippet.
+     * @param globalVars      All the global variables.
+     * @return Selected declaration keys, variables, assigned names and import prefixes.
+     */
+    private Selection select(Snippet snippet, Set<String> declarationKeys, Collection<GlobalVariable> globalVars) {
+        Map<String, GlobalVariable> variables = new HashMap<>();
+        for (GlobalVariable globalVar : globalVars) {
+            variables.put(StringUtils.normalizedIdentifier(globalVar.getVariableName()), globalVar);
+        }
+
+        Selection selection = new Selection();
+        selection.assignedNames.addAll(snippet.assignedNames());
+        Set<String> visitedNames = new HashSet<>();
+        Queue<String> pendingNames = new ArrayDeque<>(snippet.referencedNames());
+        for (Map.Entry<String, Declaration> entry : declarations.entrySet()) {
+            if (entry.getValue().pinned || declarationKeys.contains(entry.getKey())) {
+                selectDeclaration(entry.getKey(), entry.getValue(), selection, pendingNames);
+            }
+        }
+
+        while (!pendingNames.isEmpty()) {
+            String name = pendingNames.poll();
+            if (!visitedNames.add(name)) {
+                continue;
+            }
+            for (String key : definitions.getOrDefault(name, Set.of())) {
+                if (!selection.declarationKeys.contains(key)) {
+                    selectDeclaration(key, declarations.get(key), selection, pendingNames);
+                }
+            }
+            GlobalVariable globalVar = variables.get(name);
+            if (globalVar != null && selection.variables.add(globalVar)) {
+                selection.importPrefixes.addAll(globalVar.getImportPrefixes());
+                pendingNames.addAll(globalVar.getTypeNames());
+            }
+        }
+        return selection;
+    }
+
+    private void selectDeclaration(String key, Declaration declaration,
+                                   Selection selection, Queue<String> pendingNames) {
+        selection.declarationKeys.add(key);
+        selection.importPrefixes.addAll(declaration.usedImports);
+        selection.assignedNames.addAll(declaration.assignedNames);
+        pendingNames.addAll(declaration.referencedNames);
+    }
+
+    /**
+     * References of a module level declaration.
+     */
+    private static class Declaration {
+        private final Set<String> definedNames;
+        private final Set<String> referencedNames;
+        private final Set<String> assignedNames;
+        private final Set<String> usedImports;
+        private final boolean pinned;
+
+        private Declaration(Set<String> definedNames, Set<String> referencedNames, Set<String> assignedNames,
+                            Set<String> usedImports, boolean pinned) {
+            this.definedNames = definedNames;
+            this.referencedNames = referencedNames;
+            this.assignedNames = assignedNames;
+            this.usedImports = usedImports;
+            this.pinned = pinned;
+        }
+    }
+
+    /**
+     * Declarations, variables and imports selected for a snippet.
+     * Import prefixes are not quoted.
+     */
+    public static class Selection {
+        private final Set<String> declarationKeys;
+        private final Set<GlobalVariable> variables;
+        private final Set<String> assignedNames;
+        private final Set<String> importPrefixes;
+
+        private Selection() {
+            this.declarationKeys = new HashSet<>();
+            this.variables = new HashSet<>();
+            this.assignedNames = new HashSet<>();
+            this.importPrefixes = new HashSet<>();
+        }
+
+        /**
+         * Whether the variable may be assigned by the snippet or a selected declaration.
+         * Values of reference types that are mutated in place are the same values
+         * that are in the memory, so those need not be written back.
+         *
+         * @param globalVar Variable to check.
+         * @return Whether the variable should be written back to the memory.
+         */
+        public boolean isAssigned(GlobalVariable globalVar) {
+            return assignedNames.contains(StringUtils.normalizedIdentifier(globalVar.getVariableName()));
+        }
+
+        public Set<String> getDeclarationKeys() {
+            return declarationKeys;
+        }
+
+        public Set<GlobalVariable> getVariables() {
+            return variables;
+        }
+
+        public Set<String> getImportPrefixes() {
+            return importPrefixes;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.invoker.classload;
+
+import io.ballerina.shell.invoker.classload.context.ClassLoadContext;
+import io.ballerina.shell.invoker.classload.context.StatementContext;
+import io.ballerina.shell.invoker.classload.context.VariableContext;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Emits the ballerina source of the programs used by {@link ClassLoadInvoker}.
+ * There are three kinds of programs:
+ * declaration programs (to find the symbols visible in a context),
+ * import programs (to check whether imports are valid)
+ * and execution programs (to run a snippet).
+ * Sources are written to a buffer that is reused across calls,
+ * so an emitter should not be shared between threads.
+ */
+public class SourceEmitter {
+    private static final String INDENT = "    ";
+    private static final String NEW_LINE = "\n";
+
+    private final StringBuilder buffer;
+
+    public SourceEmitter() {
+        this.buffer = new StringBuilder();
+    }
+
+    /**
+     * Emits a program which only has the declarations of the context.
+     * Variables are declared both in module level and in the main function
+     * so that the symbols visible in the main function can be queried.
+     *
+     * @param context Context to emit.
+     * @return Generated source.
+     */
+    public String emitDeclaration(ClassLoadContext context) {
+        buffer.setLength(0);
+        for (String importString : context.getImports()) {
+            buffer.append(INDENT).append(importString).append(NEW_LINE);
+        }
+        buffer.append(NEW_LINE);
+        for (String moduleDcln : context.getModuleDclns()) {
+            buffer.append(INDENT).append(moduleDcln).append(NEW_LINE);
+        }
+        buffer.append(NEW_LINE);
+        buffer.append("function printerr(any|error value) { }\n");
+        buffer.append("function println(any|error... values) { }\n");
+        buffer.append("function recall_h(string name) returns any|error { }\n");
+        buffer.append("function memorize_h(string name, any|error value) { }\n");
+        buffer.append("function sprintf(string template, any|error... values) returns string { return \"\"; }\n");
+        buffer.append(NEW_LINE);
+        for (VariableContext varDcln : context.getVarDclns()) {
+            if (!varDcln.isNew()) {
+                appendDeclaredVariable(varDcln, "");
+            }
+        }
+        buffer.append(NEW_LINE);
+        buffer.append("public function main() returns error? {\n");
+        buffer.append("    // Redefine to restrict user\n");
+        for (VariableContext varDcln : context.getVarDclns()) {
+            if (!varDcln.isNew()) {
+                appendDeclaredVariable(varDcln, INDENT);
+            }
+        }
+        buffer.append(NEW_LINE);
+        buffer.append(INDENT).append(context.getLastVarDcln()).append(NEW_LINE);
+        buffer.append(NEW_LINE);
+        buffer.append("    _ = java:JavaClassNotFoundError;\n");
+        buffer.append("}\n");
+        return buffer.toString();
+    }
+
+    /**
+     * Emits a program which only has the imports of the context.
+     *
+     * @param context Context to emit.
+     * @return Generated source.
+     */
+    public String emitImport(ClassLoadContext context) {
+        buffer.setLength(0);
+        for (String importString : context.getImports()) {
+            buffer.append(importString).append(NEW_LINE);
+        }
+        buffer.append(NEW_LINE);
+        buffer.append("public function main(){\n");
+        buffer.append("}\n");
+        return buffer.toString();
+    }
+
+    /**
+     * Finds the line (zero based) each import ends on in a program emitted by {@code emitImport}.
+     * An import may span several lines, with its comments and line breaks.
+     *
+     * @param imports Imports of the context, in the order they are emitted.
+     * @return End line of each import.
+     */
+    public static List<Integer> importEndLines(List<String> imports) {
+        List<Integer> endLines = new ArrayList<>();
+        int line = 0;
+        for (String importString : imports) {
+            line += importString.split(NEW_LINE, -1).length - 1;
+            endLines.add(line);
+            line++;
+        }
+        return endLines;
+    }
+
+    /**
+     * Emits a program which runs the last statement of the context.
+     * Old variables are recalled from the memory. New variables and
+     * the variables that may be assigned are memorized after the statement is run.
+     *
+     * @param context Context to emit.
+     * @return Generated source.
+     */
+    public String emitExecution(ClassLoadContext context) {
+        String memoryRef = context.getMemoryRef();
+        String exprVarName = context.getExprVarName();
+
+        buffer.setLength(0);
+        for (String importString : context.getImports()) {
+            buffer.append(importString).append(NEW_LINE);
+        }
+        buffer.append(NEW_LINE);
+        buffer.append("handle context_id = currentContextId();\n");
+        buffer.append(NEW_LINE);
+        buffer.append("// Java methods: Memory\n");
+        appendExternalFunction("function currentContextId() returns handle", null, memoryRef);
+        appendExternalFunction("function recall(handle context_id, handle name) returns any|error",
+                null, memoryRef);
+        appendExternalFunction("function memorize(handle context_id, handle name, any|error value)",
+                null, memoryRef);
+        buffer.append(NEW_LINE);
+        buffer.append("// Java Methods: IO utilities\n");
+        appendExternalFunction("function printerr(any|error value)", null, memoryRef);
+        appendExternalFunction("function println(any|error... values)", null, memoryRef);
+        appendExternalFunction("function sprintfh(handle template, any|error... values) returns handle",
+                "sprintf", memoryRef);
+        buffer.append(NEW_LINE);
+        buffer.append("// Helper methods\n");
+        buffer.append("function recall_h(string name) returns any|error {\n");
+        buffer.append("    return trap recall(context_id, java:fromString(name));\n");
+        buffer.append("}\n");
+        buffer.append("function memorize_h(string name, any|error value) {\n");
+        buffer.append("    memorize(context_id, java:fromString(name), value);\n");
+        buffer.append("}\n");
+        buffer.append("function sprintf(string template, any|error... values) returns string {\n");
+        buffer.append("    handle out = sprintfh(java:fromString(template), ...values);\n");
+        buffer.append("    return java:toString(out) ?: \"\";\n");
+        buffer.append("}\n");
+        buffer.append(NEW_LINE);
+        buffer.append("// Module level declarations\n");
+        for (String moduleDcln : context.getModuleDclns()) {
+            buffer.append(moduleDcln).append(NEW_LINE);
+        }
+        buffer.append(NEW_LINE);
+        buffer.append("// Variable declarations\n");
+        for (VariableContext varDcln : context.getVarDclns()) {
+            if (!varDcln.isNew()) {
+                buffer.append(varDcln.getType()).append(' ').append(varDcln.getName())
+                        .append(" = <").append(varDcln.getType()).append("> ")
+                        .append(varDcln.isAny() ? "checkpanic " : "")
+                        .append("recall_h(\"");
+                appendEscaped(varDcln.getName());
+                buffer.append("\");\n");
+            }
+        }
+        buffer.append(NEW_LINE);
+        buffer.append("// Will run current statement/expression and return its result.\n");
+        buffer.append("function run() returns @untainted any|error {\n");
+        StatementContext lastStmt = context.getLastStmt();
+        if (lastStmt.isStatement()) {
+            buffer.append("    if (true) {\n");
+            buffer.append("        ").append(lastStmt.getCode()).append(NEW_LINE);
+            buffer.append("    }\n");
+            buffer.append("    return ();\n");
+        } else {
+            buffer.append("    return trap (\n");
+            buffer.append("        ").append(lastStmt.getCode()).append(NEW_LINE);
+            buffer.append("    );\n");
+        }
+        buffer.append("}\n");
+        buffer.append(NEW_LINE);
+        buffer.append("// This will execute the statement and initialize and save var dcln.\n");
+        buffer.append("// The variable is declared in local context to enable various expressions.\n");
+        buffer.append("public function stmts() returns any|error {\n");
+        buffer.append("    any|error ").append(exprVarName).append(" = trap run();\n");
+        buffer.append(INDENT).append(context.getLastVarDcln()).append(NEW_LINE);
+        appendMemorize(exprVarName);
+        for (VariableContext varDcln : context.getVarDclns()) {
+            if (varDcln.isAssigned()) {
+                appendMemorize(varDcln.getName());
+            }
+        }
+        buffer.append("    return ").append(exprVarName).append(";\n");
+        buffer.append("}\n");
+        buffer.append(NEW_LINE);
+        buffer.append("public function main() returns error? {\n");
+        buffer.append("    any|error ").append(exprVarName).append(" = trap stmts();\n");
+        buffer.append("     if (").append(exprVarName).append(" is error){\n");
+        buffer.append("        printerr(").append(exprVarName).append(");\n");
+        buffer.append("        return ").append(exprVarName).append(";\n");
+        buffer.append("    }\n");
+        buffer.append("}\n");
+        return buffer.toString();
+    }
+
+    /**
+     * Appends a variable that is declared only to be visible for the symbol lookup.
+     *
+     * @param varDcln Variable to declare.
+     * @param indent  Indentation of the declaration.
+     */
+    private void appendDeclaredVariable(VariableContext varDcln, String indent) {
+        buffer.append(indent).append(varDcln.getType()).append(' ').append(varDcln.getName())
+                .append(" = // value\n");
+        buffer.append(indent).append('<').append(varDcln.getType()).append("> ")
+                .append(varDcln.isAny() ? "checkpanic " : "")
+                .append("recall_h(\"x\");\n");
+    }
+
+    /**
+     * Appends a function that is bound to a static method of a java class.
+     *
+     * @param signature  Function signature.
+     * @param methodName Name of the java method if it is different from the function name.
+     * @param className  Java class name.
+     */
+    private void appendExternalFunction(String signature, String methodName, String className) {
+        buffer.append(signature).append(" = @java:Method {\n");
+        if (methodName != null) {
+            buffer.append("    name: \"").append(methodName).append("\",\n");
+        }
+        buffer.append("    'class: \"").append(className).append("\"\n");
+        buffer.append("} external;\n");
+    }
+
+    /**
+     * Appends a statement to memorize a variable.
+     *
+     * @param variableName Name of the variable.
+     */
+    private void appendMemorize(String variableName) {
+        buffer.append("    memorize_h(\"");
+        appendEscaped(variableName);
+        buffer.append("\", ").append(variableName).append(");\n");
+    }
+
+    /**
+     * Appends the text escaped so that it can be used inside a string literal.
+     *
+     * @param text Text to escape.
+     */
+    private void appendEscaped(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                    buffer.append('\\').append(c);
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        buffer.append(String.format("\\u{%X}", (int) c));
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+    }
+}
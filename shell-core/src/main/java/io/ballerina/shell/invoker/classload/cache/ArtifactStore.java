@@ -0,0 +1,268 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.invoker.classload.cache;
+
+import io.ballerina.shell.utils.FileUtils;
+import io.ballerina.shell.utils.StringUtils;
+import org.wso2.ballerinalang.util.RepoUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Content addressed store of compile artifacts on the disk.
+ * Artifacts are keyed by a hash of the generated source and are kept in a
+ * directory named after the version key of the compiler and the distribution.
+ * So a different distribution would never see artifacts of another.
+ * <p>
+ * An artifact is a metadata file and an optional jar file.
+ * Files are written atomically, metadata last, so that several shell processes can share the store.
+ * Least recently used artifacts are evicted once the store exceeds its size.
+ * The size of the store is measured once and then kept as a running total of the stored artifacts,
+ * so that the store is only walked again when it seems to exceed its size.
+ * Artifacts stored by other processes are counted whenever the store is walked.
+ */
+public class ArtifactStore {
+    public static final long DEFAULT_MAX_BYTES = 256L * 1024 * 1024;
+    private static final String STORE_DIRECTORY = "artifacts";
+    private static final String BALLERINA_HOME_PROPERTY = "ballerina.home";
+    private static final String REPO_DIRECTORY = "repo";
+    private static final String METADATA_EXTENSION = ".meta";
+    private static final String JAR_EXTENSION = ".jar";
+    private static final int EVICTION_TARGET_PERCENT = 75;
+
+    private static String versionKey;
+
+    private final Path storeDirectory;
+    private final Path versionDirectory;
+    private final long maxBytes;
+    private long storeBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public ArtifactStore() {
+        this(FileUtils.shellDirectory().resolve(STORE_DIRECTORY), DEFAULT_MAX_BYTES, versionKey());
+    }
+
+    public ArtifactStore(Path storeDirectory, long maxBytes, String versionKey) {
+        this.storeDirectory = storeDirectory;
+        this.versionDirectory = storeDirectory.resolve(versionKey);
+        this.maxBytes = maxBytes;
+        this.storeBytes = -1;
+    }
+
+    /**
+     * Loads the metadata stored for the source.
+     * Loading an artifact marks it as recently used.
+     *
+     * @param source Generated source.
+     * @return Metadata if an artifact is stored.
+     */
+    public synchronized Optional<byte[]> loadMetadata(String source) {
+        Path metadataFile = versionDirectory.resolve(StringUtils.hash(source) + METADATA_EXTENSION);
+        try {
+            byte[] metadata = Files.readAllBytes(metadataFile);
+            Files.setLastModifiedTime(metadataFile, FileTime.fromMillis(System.currentTimeMillis()));
+            hits++;
+            return Optional.of(metadata);
+        } catch (IOException e) {
+            misses++;
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Jar that was stored for the source.
+     * The jar may be removed by another process at any time,
+     * so it should be copied before using.
+     *
+     * @param source Generated source.
+     * @return Jar file if one was stored.
+     */
+    public Optional<Path> jar(String source) {
+        Path jarFile = versionDirectory.resolve(StringUtils.hash(source) + JAR_EXTENSION);
+        return Files.isRegularFile(jarFile) ? Optional.of(jarFile) : Optional.empty();
+    }
+
+    /**
+     * Stores an artifact for the source.
+     * Store is trimmed afterwards if it exceeds the size limit.
+     * The store is only walked to measure it the first time and when it seems to exceed the limit.
+     *
+     * @param source   Generated source.
+     * @param metadata Metadata to store.
+     * @param jar      Jar to store. May be null.
+     * @throws IOException If writing failed.
+     */
+    public synchronized void store(String source, byte[] metadata, Path jar) throws IOException {
+        String key = StringUtils.hash(source);
+        Path jarFile = versionDirectory.resolve(key + JAR_EXTENSION);
+        Path metadataFile = versionDirectory.resolve(key + METADATA_EXTENSION);
+        long replacedBytes = sizeOf(jarFile) + sizeOf(metadataFile);
+        if (jar != null) {
+            FileUtils.copyAtomically(jar, jarFile);
+        }
+        FileUtils.writeAtomically(metadataFile, metadata);
+        try {
+            if (storeBytes < 0) {
+                storeBytes = totalBytes(storedFiles());
+            } else {
+                storeBytes += sizeOf(jarFile) + sizeOf(metadataFile) - replacedBytes;
+            }
+            if (storeBytes > maxBytes) {
+                evict();
+            }
+        } catch (UncheckedIOException e) {
+            // Another process modified the store while walking
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Statistics of the store as a list of strings.
+     *
+     * @return Store statistics.
+     */
+    public synchronized List<String> statistics() {
+        return List.of(
+                String.format("(store) %s", versionDirectory),
+                String.format("(store hits) %s", hits),
+                String.format("(store misses) %s", misses),
+                String.format("(store evictions) %s", evictions));
+    }
+
+    /**
+     * Removes least recently used artifacts (of any version) if the store exceeds the size limit.
+     * Artifacts are removed until the store is well below the limit,
+     * so that the store is not walked again on the next few stores.
+     * Metadata of an artifact is removed first so that it is not seen partially.
+     *
+     * @throws IOException If the store could not be read.
+     */
+    private void evict() throws IOException {
+        List<Path> files = storedFiles();
+        long totalBytes = totalBytes(files);
+        if (totalBytes <= maxBytes) {
+            storeBytes = totalBytes;
+            return;
+        }
+
+        long targetBytes = maxBytes / 100 * EVICTION_TARGET_PERCENT;
+        List<Path> metadataFiles = files.stream()
+                .filter(file -> file.toString().endsWith(METADATA_EXTENSION))
+                .sorted(Comparator.comparing(ArtifactStore::lastModified))
+                .collect(Collectors.toList());
+        for (Path metadataFile : metadataFiles) {
+            if (totalBytes <= targetBytes) {
+                break;
+            }
+            String fileName = metadataFile.getFileName().toString();
+            String key = fileName.substring(0, fileName.length() - METADATA_EXTENSION.length());
+            Path jarFile = metadataFile.resolveSibling(key + JAR_EXTENSION);
+            totalBytes -= sizeOf(metadataFile) + sizeOf(jarFile);
+            Files.deleteIfExists(metadataFile);
+            Files.deleteIfExists(jarFile);
+            evictions++;
+        }
+        storeBytes = totalBytes;
+    }
+
+    /**
+     * Files of all the versions in the store.
+     *
+     * @return Stored files.
+     * @throws IOException If the store could not be read.
+     */
+    private List<Path> storedFiles() throws IOException {
+        if (!Files.isDirectory(storeDirectory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.walk(storeDirectory)) {
+            return paths.filter(Files::isRegularFile).collect(Collectors.toList());
+        }
+    }
+
+    private static long totalBytes(List<Path> files) {
+        long totalBytes = 0;
+        for (Path file : files) {
+            totalBytes += sizeOf(file);
+        }
+        return totalBytes;
+    }
+
+    /**
+     * Key that identifies the compiler and the distribution.
+     * Made from the compiler version, the ballerina home
+     * and the files (name, size, last modified time) of the distribution repository.
+     *
+     * @return Version key of the current distribution.
+     */
+    public static synchronized String versionKey() {
+        if (versionKey != null) {
+            return versionKey;
+        }
+        StringBuilder fingerprint = new StringBuilder();
+        fingerprint.append(RepoUtils.getBallerinaVersion()).append('\n');
+        String ballerinaHome = System.getProperty(BALLERINA_HOME_PROPERTY);
+        if (ballerinaHome != null) {
+            Path homeDirectory = Paths.get(ballerinaHome).toAbsolutePath().normalize();
+            fingerprint.append(homeDirectory).append('\n');
+            Path repoDirectory = homeDirectory.resolve(REPO_DIRECTORY);
+            if (Files.isDirectory(repoDirectory)) {
+                try (Stream<Path> paths = Files.walk(repoDirectory)) {
+                    paths.filter(Files::isRegularFile).sorted().forEach(file -> fingerprint
+                            .append(repoDirectory.relativize(file)).append(' ')
+                            .append(sizeOf(file)).append(' ')
+                            .append(lastModified(file)).append('\n'));
+                } catch (IOException | UncheckedIOException e) {
+                    fingerprint.append(e.getMessage());
+                }
+            }
+        }
+        versionKey = StringUtils.hash(fingerprint.toString());
+        return versionKey;
+    }
+
+    private static long sizeOf(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
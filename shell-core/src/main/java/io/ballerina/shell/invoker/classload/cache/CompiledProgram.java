@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.invoker.classload.cache;
+
+import io.ballerina.shell.Diagnostic;
+import io.ballerina.shell.invoker.classload.GlobalVariable;
+import io.ballerina.shell.invoker.classload.HashedSymbol;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A generated program that was compiled and code generated.
+ * Holds everything required to execute the program again without compiling.
+ * The module jar is a private copy owned by this program,
+ * so later compilations cannot overwrite it.
+ * The program keeps one class loader of the module jar, which is closed before the jar is removed.
+ * Also holds the information that was inferred while compiling the program.
+ */
+public class CompiledProgram {
+    private static final int METADATA_VERSION = 3;
+
+    private final String initClassName;
+    private final List<Path> dependencyJars;
+    private final URL moduleJarUrl;
+    private final Path moduleJar;
+    private final long size;
+    private final Set<GlobalVariable> newVariables;
+    private final Set<HashedSymbol> newSymbols;
+    private final Map<String, String> implicitImports;
+    private final List<Diagnostic> warnings;
+    private URLClassLoader classLoader;
+    private ClassLoader classLoaderParent;
+
+    /**
+     * Creates a compiled program.
+     *
+     * @param initClassName   Name of the init class of the module.
+     * @param dependencyJars  Jars that are required to run the program, except the module jar.
+     * @param moduleJar       Private copy of the jar of the generated module.
+     * @param newVariables    Variables that were found in the program.
+     * @param newSymbols      Symbols that were found in the program.
+     * @param implicitImports Imports (prefix to module name) that were required for variable types.
+     * @param warnings        Warnings that were reported while compiling.
+     * @throws IOException If the jar paths are invalid.
+     */
+    public CompiledProgram(String initClassName, Collection<Path> dependencyJars, Path moduleJar,
+                           Set<GlobalVariable> newVariables, Set<HashedSymbol> newSymbols,
+                           Map<String, String> implicitImports, List<Diagnostic> warnings) throws IOException {
+        this.initClassName = initClassName;
+        this.dependencyJars = List.copyOf(dependencyJars);
+        this.moduleJar = moduleJar;
+        this.size = Files.size(moduleJar);
+        this.newVariables = Set.copyOf(newVariables);
+        this.newSymbols = Set.copyOf(newSymbols);
+        this.implicitImports = Map.copyOf(implicitImports);
+        this.warnings = List.copyOf(warnings);
+        this.moduleJarUrl = moduleJar.toUri().toURL();
+    }
+
+    /**
+     * Serializes everything except the module jar.
+     * The module jar should be stored alongside.
+     *
+     * @return Serialized program metadata.
+     * @throws IOException If serializing failed.
+     */
+    public byte[] toMetadata() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(outputStream)) {
+            output.writeInt(METADATA_VERSION);
+            output.writeUTF(initClassName);
+            output.writeInt(dependencyJars.size());
+            for (Path dependencyJar : dependencyJars) {
+                output.writeUTF(dependencyJar.toString());
+            }
+            output.writeInt(newVariables.size());
+            for (GlobalVariable newVariable : newVariables) {
+                newVariable.writeTo(output);
+            }
+            output.writeInt(newSymbols.size());
+            for (HashedSymbol newSymbol : newSymbols) {
+                newSymbol.writeTo(output);
+            }
+            output.writeInt(implicitImports.size());
+            for (Map.Entry<String, String> entry : implicitImports.entrySet()) {
+                output.writeUTF(entry.getKey());
+                output.writeUTF(entry.getValue());
+            }
+            output.writeInt(warnings.size());
+            for (Diagnostic warning : warnings) {
+                output.writeUTF(warning.getMessage());
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Creates a program from metadata written by {@code toMetadata}.
+     * Dependency jars must still exist for the program to be usable.
+     *
+     * @param metadata  Serialized program metadata.
+     * @param moduleJar Private copy of the jar of the generated module.
+     * @return Deserialized program.
+     * @throws IOException If the metadata is invalid or a dependency jar is missing.
+     */
+    public static CompiledProgram fromMetadata(byte[] metadata, Path moduleJar) throws IOException {
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(metadata))) {
+            if (input.readInt() != METADATA_VERSION) {
+                throw new IOException("Unsupported program metadata version.");
+            }
+            String initClassName = input.readUTF();
+            List<Path> dependencyJars = new ArrayList<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                Path dependencyJar = Paths.get(input.readUTF());
+                if (!Files.exists(dependencyJar)) {
+                    throw new IOException("Dependency not found: " + dependencyJar);
+                }
+                dependencyJars.add(dependencyJar);
+            }
+            Set<GlobalVariable> newVariables = new HashSet<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                newVariables.add(GlobalVariable.readFrom(input));
+            }
+            Set<HashedSymbol> newSymbols = new HashSet<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                newSymbols.add(HashedSymbol.readFrom(input));
+            }
+            Map<String, String> implicitImports = new HashMap<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                implicitImports.put(input.readUTF(), input.readUTF());
+            }
+            List<Diagnostic> warnings = new ArrayList<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                warnings.add(Diagnostic.warn(input.readUTF()));
+            }
+            return new CompiledProgram(initClassName, dependencyJars, moduleJar,
+                    newVariables, newSymbols, implicitImports, warnings);
+        }
+    }
+
+    /**
+     * Class loader to load the program.
+     * Only the module jar is loaded by it, dependencies should be loaded by the parent.
+     * The same loader is used by every execution with the same parent.
+     * A loader of a previous parent is closed, since its dependencies are no longer used.
+     *
+     * @param parent Class loader of the dependency jars.
+     * @return Class loader with the module jar.
+     */
+    public synchronized ClassLoader classLoader(ClassLoader parent) {
+        if (classLoader == null || classLoaderParent != parent) {
+            closeClassLoader();
+            this.classLoader = new URLClassLoader(new URL[]{moduleJarUrl}, parent);
+            this.classLoaderParent = parent;
+        }
+        return classLoader;
+    }
+
+    /**
+     * Closes the class loader and removes the files owned by the program.
+     * The loader is closed first so that the jar is not removed while it is open.
+     * The program cannot be executed afterwards.
+     */
+    public synchronized void discard() {
+        closeClassLoader();
+        try {
+            Files.deleteIfExists(moduleJar);
+        } catch (IOException ignored) {
+            // File will be removed when the temp directory is cleaned.
+        }
+    }
+
+    private void closeClassLoader() {
+        if (classLoader != null) {
+            try {
+                classLoader.close();
+            } catch (IOException ignored) {
+                // Classes that were already loaded are unaffected.
+            }
+        }
+        this.classLoader = null;
+        this.classLoaderParent = null;
+    }
+
+    public String getInitClassName() {
+        return initClassName;
+    }
+
+    public List<Path> getDependencyJars() {
+        return dependencyJars;
+    }
+
+    public Path getModuleJar() {
+        return moduleJar;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public Set<GlobalVariable> getNewVariables() {
+        return newVariables;
+    }
+
+    public Set<HashedSymbol> getNewSymbols() {
+        return newSymbols;
+    }
+
+    public Map<String, String> getImplicitImports() {
+        return implicitImports;
+    }
+
+    public List<Diagnostic> getWarnings() {
+        return warnings;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.invoker.classload.cache;
+
+import io.ballerina.shell.utils.StringUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Bounded cache of compiled programs.
+ * Programs are keyed by a hash of the generated source.
+ * So an identical generated source would not be compiled again.
+ * Least recently used programs are evicted once the number of entries
+ * or the retained bytes (size of the module jars) exceed the limits.
+ */
+public class CompiledProgramCache {
+    public static final int DEFAULT_MAX_ENTRIES = 64;
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final String JAR_DIRECTORY_PREFIX = "bal-shell-programs-";
+    private static final String JAR_EXTENSION = ".jar";
+
+    private static CompiledProgramCache sharedCache;
+
+    private final int maxEntries;
+    private final long maxBytes;
+    /**
+     * Map of source hash to the program.
+     * Map is ordered by the access order so the first entry is the least recently used.
+     */
+    private final LinkedHashMap<String, CompiledProgram> programs;
+    private Path jarDirectory;
+    private long retainedBytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    public CompiledProgramCache() {
+        this(DEFAULT_MAX_ENTRIES, DEFAULT_MAX_BYTES);
+    }
+
+    public CompiledProgramCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        this.programs = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Cache that is shared within the process.
+     * Generated sources do not depend on the invoker, so any invoker can use a program.
+     *
+     * @return Shared cache.
+     */
+    public static synchronized CompiledProgramCache sharedCache() {
+        if (sharedCache == null) {
+            sharedCache = new CompiledProgramCache();
+        }
+        return sharedCache;
+    }
+
+    /**
+     * Finds the program compiled from the given source.
+     *
+     * @param source Generated source.
+     * @return The compiled program if it is in the cache.
+     */
+    public synchronized Optional<CompiledProgram> get(String source) {
+        CompiledProgram program = programs.get(StringUtils.hash(source));
+        if (program == null) {
+            misses++;
+            return Optional.empty();
+        }
+        hits++;
+        return Optional.of(program);
+    }
+
+    /**
+     * Adds a compiled program to the cache.
+     * Older programs are evicted if the cache exceeds its limits.
+     *
+     * @param source  Generated source.
+     * @param program Program compiled from the source.
+     */
+    public synchronized void put(String source, CompiledProgram program) {
+        CompiledProgram previous = programs.put(StringUtils.hash(source), program);
+        if (previous != null) {
+            retainedBytes -= previous.getSize();
+            previous.discard();
+        }
+        retainedBytes += program.getSize();
+        evictIfRequired();
+    }
+
+    /**
+     * Copies a generated module jar to a location owned by the cache.
+     * Module jars are overwritten by subsequent compilations,
+     * so a cached program must keep its own copy.
+     *
+     * @param moduleJar Generated module jar.
+     * @return Path of the copy.
+     * @throws IOException If copying failed.
+     */
+    public synchronized Path retainJar(Path moduleJar) throws IOException {
+        if (jarDirectory == null || !Files.isDirectory(jarDirectory)) {
+            jarDirectory = Files.createTempDirectory(JAR_DIRECTORY_PREFIX);
+            jarDirectory.toFile().deleteOnExit();
+        }
+        Path jarCopy = Files.createTempFile(jarDirectory, null, JAR_EXTENSION);
+        jarCopy.toFile().deleteOnExit();
+        return Files.copy(moduleJar, jarCopy, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Removes all the programs in the cache.
+     * Statistics are kept.
+     */
+    public synchronized void clear() {
+        programs.values().forEach(CompiledProgram::discard);
+        programs.clear();
+        retainedBytes = 0;
+    }
+
+    /**
+     * Statistics of the cache as a list of strings.
+     *
+     * @return Cache statistics.
+     */
+    public synchronized List<String> statistics() {
+        return List.of(
+                String.format("(entries) %s of %s", programs.size(), maxEntries),
+                String.format("(bytes) %s of %s", retainedBytes, maxBytes),
+                String.format("(hits) %s", hits),
+                String.format("(misses) %s", misses),
+                String.format("(evictions) %s", evictions));
+    }
+
+    private void evictIfRequired() {
+        Iterator<Map.Entry<String, CompiledProgram>> iterator = programs.entrySet().iterator();
+        // The most recent program is always kept.
+        while ((programs.size() > maxEntries || retainedBytes > maxBytes) && programs.size() > 1) {
+            CompiledProgram eldest = iterator.next().getValue();
+            iterator.remove();
+            retainedBytes -= eldest.getSize();
+            eldest.discard();
+            evictions++;
+        }
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    public synchronized int size() {
+        return programs.size();
+    }
+}
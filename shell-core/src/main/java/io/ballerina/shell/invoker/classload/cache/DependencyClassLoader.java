@@ -0,0 +1,91 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.invoker.classload.cache;
+
+import java.io.IOException;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Keeps the class loader of the dependency jars alive across executions.
+ * Programs are loaded by a thin class loader with only the module jar,
+ * which delegates to this loader. So classes of the dependencies
+ * (and the code the JIT compiled for them) are reused between snippets.
+ * A new loader is created only when the set of dependency jars changes.
+ */
+public class DependencyClassLoader {
+    private List<Path> dependencyJars;
+    private URLClassLoader classLoader;
+    private long hits;
+    private long misses;
+
+    /**
+     * Finds the class loader that loads the given dependencies.
+     * The previous loader is closed if the dependencies changed.
+     *
+     * @param dependencyJars Jars that are required to run a program, except the module jar.
+     * @return Class loader of the dependencies.
+     * @throws MalformedURLException If the jar paths are invalid.
+     */
+    public synchronized ClassLoader get(List<Path> dependencyJars) throws MalformedURLException {
+        if (classLoader != null && dependencyJars.equals(this.dependencyJars)) {
+            hits++;
+            return classLoader;
+        }
+        misses++;
+        URL[] jarUrls = new URL[dependencyJars.size()];
+        for (int i = 0; i < jarUrls.length; i++) {
+            jarUrls[i] = dependencyJars.get(i).toUri().toURL();
+        }
+        clear();
+        this.dependencyJars = List.copyOf(dependencyJars);
+        this.classLoader = new URLClassLoader(jarUrls);
+        return classLoader;
+    }
+
+    /**
+     * Closes the current loader so the next program starts with freshly loaded dependencies.
+     */
+    public synchronized void clear() {
+        if (classLoader != null) {
+            try {
+                classLoader.close();
+            } catch (IOException ignored) {
+                // Classes that were already loaded are unaffected.
+            }
+        }
+        this.classLoader = null;
+        this.dependencyJars = null;
+    }
+
+    /**
+     * Statistics of the loader reuse in a human readable form.
+     *
+     * @return Loader statistics.
+     */
+    public synchronized List<String> statistics() {
+        return List.of(
+                String.format("(loader reuses) %s", hits),
+                String.format("(loader creations) %s", misses));
+    }
+}
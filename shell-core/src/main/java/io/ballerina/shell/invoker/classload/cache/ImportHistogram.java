@@ -0,0 +1,137 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.shell.invoker.classload.cache;
+
+import io.ballerina.shell.utils.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Counts of how many times each module was imported, across shell sessions.
+ * The file is read again before each update while holding a lock on it,
+ * so that counts of several shell processes are merged instead of overwritten.
+ * Used to find the modules that are worth resolving before they are imported.
+ */
+public class ImportHistogram {
+    private static final int HISTOGRAM_VERSION = 1;
+    private static final String HISTOGRAM_FILE = "imports/histogram.counts";
+
+    private final Path histogramFile;
+
+    public ImportHistogram() {
+        this(FileUtils.shellDirectory().resolve(HISTOGRAM_FILE));
+    }
+
+    public ImportHistogram(Path histogramFile) {
+        this.histogramFile = histogramFile;
+    }
+
+    /**
+     * Counts an import of the module.
+     *
+     * @param moduleName Name of the imported module.
+     * @throws IOException If writing the histogram file failed.
+     */
+    public synchronized void record(String moduleName) throws IOException {
+        FileUtils.updateAtomically(histogramFile, content -> {
+            Map<String, Integer> counts = readCounts(content);
+            counts.merge(moduleName, 1, Integer::sum);
+            return writeCounts(counts);
+        });
+    }
+
+    /**
+     * Most frequently imported modules, most frequent first.
+     * Modules imported equally often are ordered by name.
+     *
+     * @param limit Maximum number of modules.
+     * @return Names of the modules.
+     */
+    public synchronized List<String> mostFrequent(int limit) {
+        byte[] content;
+        try {
+            content = Files.isRegularFile(histogramFile) ? Files.readAllBytes(histogramFile) : new byte[0];
+        } catch (IOException e) {
+            content = new byte[0];
+        }
+        return readCounts(content).entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Reads the counts in the content of the histogram file.
+     * An unreadable or outdated file is treated as empty.
+     *
+     * @param content Content of the histogram file.
+     * @return Counts keyed by module name.
+     */
+    private static Map<String, Integer> readCounts(byte[] content) {
+        Map<String, Integer> counts = new HashMap<>();
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(content))) {
+            if (input.readInt() != HISTOGRAM_VERSION) {
+                return counts;
+            }
+            Map<String, Integer> storedCounts = new HashMap<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                storedCounts.put(input.readUTF(), input.readInt());
+            }
+            counts.putAll(storedCounts);
+        } catch (IOException e) {
+            // Counting starts again
+        }
+        return counts;
+    }
+
+    /**
+     * Content of the histogram file with the given counts.
+     *
+     * @param counts Counts keyed by module name.
+     * @return Content of the histogram file.
+     */
+    private static byte[] writeCounts(Map<String, Integer> counts) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(outputStream)) {
+            output.writeInt(HISTOGRAM_VERSION);
+            output.writeInt(counts.size());
+            for (Map.Entry<String, Integer> count : counts.entrySet()) {
+                output.writeUTF(count.getKey());
+                output.writeInt(count.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+}
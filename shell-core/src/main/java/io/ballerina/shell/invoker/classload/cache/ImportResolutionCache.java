@@ -0,0 +1,225 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.shell.invoker.classload.cache;
+
+import io.ballerina.shell.utils.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Outcomes of resolving imported modules, so they need not be compiled again to be checked.
+ * Modules that were not found are remembered with the fingerprint of the repository at the time,
+ * and are only known to be missing while the repository has the same fingerprint.
+ * So pulling or installing a module into the repository invalidates them.
+ * Outcomes are kept in memory (surviving resets) and in a file keyed by the
+ * version key of the distribution. The file is merged with the outcomes
+ * of other shell processes whenever an outcome is stored.
+ */
+public class ImportResolutionCache {
+    private static final int CACHE_VERSION = 3;
+    private static final String CACHE_DIRECTORY = "imports";
+    private static final String CACHE_EXTENSION = ".imports";
+
+    private final Path cacheFile;
+    private Outcomes outcomes;
+    private long hits;
+    private long misses;
+
+    public ImportResolutionCache() {
+        this(FileUtils.shellDirectory().resolve(CACHE_DIRECTORY)
+                .resolve(ArtifactStore.versionKey() + CACHE_EXTENSION));
+    }
+
+    public ImportResolutionCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * Finds the previous outcome of resolving the module.
+     * Outcomes are loaded from the cache file on first use.
+     *
+     * @param moduleName            Name of the imported module.
+     * @param repositoryFingerprint Fingerprint of the repository now.
+     * @return Whether the module resolved, if it was resolved before or was not found in the same repository.
+     */
+    public synchronized Optional<Boolean> resolution(String moduleName, String repositoryFingerprint) {
+        Outcomes currentOutcomes = loadedOutcomes();
+        if (currentOutcomes.resolvedModules.contains(moduleName)) {
+            hits++;
+            return Optional.of(true);
+        }
+        if (repositoryFingerprint.equals(currentOutcomes.missingModules.get(moduleName))) {
+            hits++;
+            return Optional.of(false);
+        }
+        misses++;
+        return Optional.empty();
+    }
+
+    /**
+     * Remembers the outcome of resolving a module.
+     * The outcome is remembered in memory even if writing the file failed.
+     *
+     * @param moduleName            Name of the imported module.
+     * @param resolved              Whether the module resolved.
+     * @param repositoryFingerprint Fingerprint of the repository the module was resolved in.
+     * @throws IOException If writing the cache file failed.
+     */
+    public synchronized void store(String moduleName, boolean resolved, String repositoryFingerprint)
+            throws IOException {
+        Outcomes currentOutcomes = loadedOutcomes();
+        if (resolved ? currentOutcomes.resolvedModules.contains(moduleName)
+                : repositoryFingerprint.equals(currentOutcomes.missingModules.get(moduleName))) {
+            return;
+        }
+        currentOutcomes.add(moduleName, resolved, repositoryFingerprint);
+
+        try {
+            FileUtils.updateAtomically(cacheFile, content -> {
+                Outcomes mergedOutcomes = readOutcomes(content);
+                mergedOutcomes.addAll(outcomes);
+                mergedOutcomes.add(moduleName, resolved, repositoryFingerprint);
+                outcomes = mergedOutcomes;
+                return writeOutcomes(mergedOutcomes);
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Statistics of the cache as a list of strings.
+     *
+     * @return Cache statistics.
+     */
+    public synchronized List<String> statistics() {
+        return List.of(
+                String.format("(import cache hits) %s", hits),
+                String.format("(import cache misses) %s", misses));
+    }
+
+    public Path getCacheFile() {
+        return cacheFile;
+    }
+
+    /**
+     * Outcomes in memory, read from the cache file if not read yet.
+     *
+     * @return Known outcomes.
+     */
+    private Outcomes loadedOutcomes() {
+        if (outcomes != null) {
+            return outcomes;
+        }
+        byte[] content;
+        try {
+            content = Files.isRegularFile(cacheFile) ? Files.readAllBytes(cacheFile) : new byte[0];
+        } catch (IOException e) {
+            content = new byte[0];
+        }
+        outcomes = readOutcomes(content);
+        return outcomes;
+    }
+
+    /**
+     * Reads the outcomes in the content of the cache file.
+     * An unreadable or outdated cache file is treated as empty.
+     *
+     * @param content Content of the cache file.
+     * @return Stored outcomes.
+     */
+    private static Outcomes readOutcomes(byte[] content) {
+        Outcomes storedOutcomes = new Outcomes();
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(content))) {
+            if (input.readInt() != CACHE_VERSION) {
+                return storedOutcomes;
+            }
+            for (int i = input.readInt(); i > 0; i--) {
+                storedOutcomes.resolvedModules.add(input.readUTF());
+            }
+            for (int i = input.readInt(); i > 0; i--) {
+                storedOutcomes.missingModules.put(input.readUTF(), input.readUTF());
+            }
+        } catch (IOException e) {
+            // Modules are resolved again
+            return new Outcomes();
+        }
+        return storedOutcomes;
+    }
+
+    /**
+     * Content of the cache file with the given outcomes.
+     *
+     * @param outcomesToWrite Outcomes to write.
+     * @return Content of the cache file.
+     */
+    private static byte[] writeOutcomes(Outcomes outcomesToWrite) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(outputStream)) {
+            output.writeInt(CACHE_VERSION);
+            output.writeInt(outcomesToWrite.resolvedModules.size());
+            for (String resolvedModule : outcomesToWrite.resolvedModules) {
+                output.writeUTF(resolvedModule);
+            }
+            output.writeInt(outcomesToWrite.missingModules.size());
+            for (Map.Entry<String, String> missingModule : outcomesToWrite.missingModules.entrySet()) {
+                output.writeUTF(missingModule.getKey());
+                output.writeUTF(missingModule.getValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Resolved modules and the repository fingerprints of the modules that were not found.
+     */
+    private static class Outcomes {
+        private final Set<String> resolvedModules = new HashSet<>();
+        private final Map<String, String> missingModules = new HashMap<>();
+
+        private void add(String moduleName, boolean resolved, String repositoryFingerprint) {
+            if (resolved) {
+                resolvedModules.add(moduleName);
+                missingModules.remove(moduleName);
+            } else if (!resolvedModules.contains(moduleName)) {
+                missingModules.put(moduleName, repositoryFingerprint);
+            }
+        }
+
+        private void addAll(Outcomes other) {
+            other.missingModules.forEach((moduleName, fingerprint) -> add(moduleName, false, fingerprint));
+            other.resolvedModules.forEach(moduleName -> add(moduleName, true, ""));
+        }
+    }
+}
@@ -0,0 +1,494 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.shell.invoker.classload.cache;
+
+import io.ballerina.compiler.syntax.tree.AnnotationDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ClassDefinitionNode;
+import io.ballerina.compiler.syntax.tree.ConstantDeclarationNode;
+import io.ballerina.compiler.syntax.tree.EnumDeclarationNode;
+import io.ballerina.compiler.syntax.tree.EnumMemberNode;
+import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
+import io.ballerina.compiler.syntax.tree.ListenerDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ModulePartNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.compiler.syntax.tree.SyntaxTree;
+import io.ballerina.compiler.syntax.tree.Token;
+import io.ballerina.compiler.syntax.tree.TypeDefinitionNode;
+import io.ballerina.shell.utils.FileUtils;
+import io.ballerina.shell.utils.StringUtils;
+import io.ballerina.tools.text.TextDocuments;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Index of the modules in the distribution repository.
+ * Has the organizations, modules, versions and public symbols of every balo
+ * in the repository, so imports can be checked and completed without compiling.
+ * <p>
+ * Index is built from the balo sources once and kept in a file named by the fingerprint
+ * (file names, sizes, last modified times) of the repository.
+ * Fingerprint is checked when the index is used, at most once in the refresh interval,
+ * so a changed repository is indexed again without reading the repository on every use.
+ */
+public class ModuleRepositoryIndex {
+    private static final int INDEX_VERSION = 1;
+    private static final String INDEX_DIRECTORY = "index";
+    private static final String INDEX_EXTENSION = ".index";
+    private static final String BALLERINA_HOME_PROPERTY = "ballerina.home";
+    private static final String BALO_DIRECTORY = "repo/balo";
+    private static final String BALO_EXTENSION = ".balo";
+    private static final String MODULES_DIRECTORY = "modules/";
+    private static final String SOURCE_EXTENSION = ".bal";
+    private static final String LANG_LIBRARY_PREFIX = "ballerina/lang.";
+    private static final long DEFAULT_REFRESH_INTERVAL_MS = 10_000;
+
+    private static ModuleRepositoryIndex sharedIndex;
+
+    private final Path baloDirectory;
+    private final Path indexDirectory;
+    private final long refreshIntervalNanos;
+    private String fingerprint;
+    private long lastCheckNanos;
+    private Map<String, IndexedModule> modules;
+    private long builds;
+
+    public ModuleRepositoryIndex(Path baloDirectory, Path indexDirectory) {
+        this(baloDirectory, indexDirectory, DEFAULT_REFRESH_INTERVAL_MS);
+    }
+
+    public ModuleRepositoryIndex(Path baloDirectory, Path indexDirectory, long refreshIntervalMs) {
+        this.baloDirectory = baloDirectory;
+        this.indexDirectory = indexDirectory;
+        this.refreshIntervalNanos = TimeUnit.MILLISECONDS.toNanos(refreshIntervalMs);
+        this.modules = Map.of();
+    }
+
+    /**
+     * Index of the repository of the current distribution.
+     * Shared by the invokers and the shell front end.
+     *
+     * @return Shared index.
+     */
+    public static synchronized ModuleRepositoryIndex sharedIndex() {
+        if (sharedIndex == null) {
+            String ballerinaHome = System.getProperty(BALLERINA_HOME_PROPERTY);
+            Path baloDirectory = ballerinaHome == null ? null : Paths.get(ballerinaHome).resolve(BALO_DIRECTORY);
+            sharedIndex = new ModuleRepositoryIndex(baloDirectory,
+                    FileUtils.shellDirectory().resolve(INDEX_DIRECTORY));
+        }
+        return sharedIndex;
+    }
+
+    /**
+     * All the modules in the repository.
+     *
+     * @return Indexed modules.
+     */
+    public synchronized Collection<IndexedModule> modules() {
+        refreshIfChanged();
+        return Collections.unmodifiableCollection(modules.values());
+    }
+
+    /**
+     * Finds a module in the repository.
+     * Parts of the module name may be quoted.
+     *
+     * @param orgName    Organization of the module.
+     * @param moduleName Name of the module.
+     * @return Indexed module if the repository has it.
+     */
+    public synchronized Optional<IndexedModule> module(String orgName, String moduleName) {
+        return module(key(orgName, moduleName));
+    }
+
+    private Optional<IndexedModule> module(String moduleKey) {
+        refreshIfChanged();
+        return Optional.ofNullable(modules.get(moduleKey));
+    }
+
+    /**
+     * Decides whether an import of the module resolves, as far as the repository can tell.
+     * Modules in the repository resolve. Lang library modules that are not in the repository do not,
+     * since lang libraries are only shipped with the distribution.
+     * Nothing can be told about other modules, which may be found in other repositories.
+     *
+     * @param importedModule Imported module as {@code org/module}. Parts of the module name may be quoted.
+     * @return Whether the module resolves, if it can be told from the repository.
+     */
+    public synchronized Optional<Boolean> resolution(String importedModule) {
+        int separator = importedModule.indexOf('/');
+        if (separator < 0) {
+            return Optional.empty();
+        }
+        String moduleKey = key(importedModule.substring(0, separator), importedModule.substring(separator + 1));
+        if (module(moduleKey).isPresent()) {
+            return Optional.of(true);
+        }
+        boolean langLibrary = modules.keySet().stream()
+                .anyMatch(key -> key.startsWith(LANG_LIBRARY_PREFIX)) && moduleKey.startsWith(LANG_LIBRARY_PREFIX);
+        return langLibrary ? Optional.of(false) : Optional.empty();
+    }
+
+    /**
+     * Fingerprint of the repository, which changes whenever a balo is added, removed or replaced.
+     * Like the index, it is checked again at most once in the refresh interval.
+     *
+     * @return Hash of the repository fingerprint.
+     */
+    public synchronized String fingerprint() {
+        refreshIfChanged();
+        return StringUtils.hash(fingerprint);
+    }
+
+    /**
+     * Statistics of the index as a list of strings.
+     *
+     * @return Index statistics.
+     */
+    public synchronized List<String> statistics() {
+        return List.of(
+                String.format("(indexed modules) %s", modules.size()),
+                String.format("(index builds) %s", builds));
+    }
+
+    /**
+     * Loads the index of the current repository if the repository changed since the last check.
+     * The repository is not checked again until the refresh interval has passed.
+     * The index file is used if there is one, otherwise the repository is indexed and the file is written.
+     * Failures leave an empty index, so that imports are checked by compiling.
+     */
+    private void refreshIfChanged() {
+        long now = System.nanoTime();
+        if (fingerprint != null && now - lastCheckNanos < refreshIntervalNanos) {
+            return;
+        }
+        this.lastCheckNanos = now;
+        String currentFingerprint = repositoryFingerprint();
+        if (currentFingerprint.equals(fingerprint)) {
+            return;
+        }
+        this.fingerprint = currentFingerprint;
+        Path indexFile = indexDirectory.resolve(StringUtils.hash(currentFingerprint) + INDEX_EXTENSION);
+        try {
+            Optional<Map<String, IndexedModule>> storedModules = readIndex(indexFile);
+            if (storedModules.isPresent()) {
+                this.modules = storedModules.get();
+                return;
+            }
+            this.modules = buildIndex();
+            builds++;
+            FileUtils.writeAtomically(indexFile, writeIndex(modules));
+        } catch (IOException | UncheckedIOException e) {
+            // Index file could not be written, the built index is still used for this session.
+        }
+    }
+
+    /**
+     * Fingerprint made from the balo files of the repository.
+     *
+     * @return Fingerprint of the repository.
+     */
+    private String repositoryFingerprint() {
+        if (baloDirectory == null || !Files.isDirectory(baloDirectory)) {
+            return "";
+        }
+        StringBuilder builder = new StringBuilder();
+        builder.append(baloDirectory.toAbsolutePath().normalize()).append('\n');
+        for (Path baloFile : baloFiles()) {
+            try {
+                builder.append(baloDirectory.relativize(baloFile)).append(' ')
+                        .append(Files.size(baloFile)).append(' ')
+                        .append(Files.getLastModifiedTime(baloFile)).append('\n');
+            } catch (IOException e) {
+                builder.append(baloFile).append('\n');
+            }
+        }
+        return builder.toString();
+    }
+
+    /**
+     * Balo files of the repository, in the order of their paths.
+     * Balo files are in {@code org/module/version/} directories.
+     *
+     * @return Balo files.
+     */
+    private List<Path> baloFiles() {
+        try (Stream<Path> paths = Files.walk(baloDirectory, 4)) {
+            return paths.filter(path -> path.toString().endsWith(BALO_EXTENSION))
+                    .filter(Files::isRegularFile)
+                    .filter(path -> baloDirectory.relativize(path).getNameCount() == 4)
+                    .sorted().collect(Collectors.toList());
+        } catch (IOException | UncheckedIOException e) {
+            return List.of();
+        }
+    }
+
+    /**
+     * Indexes every balo of the repository.
+     * Balos that cannot be read are indexed without symbols.
+     *
+     * @return Indexed modules keyed by the module key.
+     */
+    private Map<String, IndexedModule> buildIndex() {
+        Map<String, IndexedModule> builtModules = new TreeMap<>();
+        if (baloDirectory == null) {
+            return builtModules;
+        }
+        for (Path baloFile : baloFiles()) {
+            Path relativePath = baloDirectory.relativize(baloFile);
+            String orgName = relativePath.getName(0).toString();
+            String moduleName = relativePath.getName(1).toString();
+            String version = relativePath.getName(2).toString();
+            IndexedModule module = builtModules.computeIfAbsent(key(orgName, moduleName),
+                    k -> new IndexedModule(orgName, moduleName));
+            module.versions.add(version);
+            module.publicSymbols.addAll(publicSymbols(baloFile, moduleName));
+        }
+        return builtModules;
+    }
+
+    /**
+     * Finds the public symbols declared in the module sources of a balo.
+     *
+     * @param baloFile   Balo file.
+     * @param moduleName Name of the module.
+     * @return Names of the public symbols.
+     */
+    private static Set<String> publicSymbols(Path baloFile, String moduleName) {
+        Set<String> symbols = new TreeSet<>();
+        String sourcePrefix = MODULES_DIRECTORY + moduleName + "/";
+        try (ZipFile zipFile = new ZipFile(baloFile.toFile())) {
+            Enumeration<? extends ZipEntry> entries = zipFile.entries();
+            while (entries.hasMoreElements()) {
+                ZipEntry entry = entries.nextElement();
+                if (!entry.getName().startsWith(sourcePrefix) || !entry.getName().endsWith(SOURCE_EXTENSION)) {
+                    continue;
+                }
+                String source = new String(zipFile.getInputStream(entry).readAllBytes(), StandardCharsets.UTF_8);
+                ModulePartNode modulePart = SyntaxTree.from(TextDocuments.from(source)).rootNode();
+                for (ModuleMemberDeclarationNode member : modulePart.members()) {
+                    symbols.addAll(publicNames(member));
+                }
+            }
+        } catch (IOException e) {
+            // Module is still indexed, but without symbols.
+        }
+        return symbols;
+    }
+
+    /**
+     * Names declared by a module member if it is public.
+     * Members of a public enum are public constants as well.
+     *
+     * @param member Module member.
+     * @return Normalized names of the public declarations.
+     */
+    private static List<String> publicNames(ModuleMemberDeclarationNode member) {
+        Optional<Token> visibility;
+        Token nameToken;
+        if (member instanceof FunctionDefinitionNode) {
+            FunctionDefinitionNode function = (FunctionDefinitionNode) member;
+            visibility = function.qualifierList().stream()
+                    .filter(token -> token.kind() == SyntaxKind.PUBLIC_KEYWORD).findFirst();
+            nameToken = function.functionName();
+        } else if (member instanceof TypeDefinitionNode) {
+            visibility = ((TypeDefinitionNode) member).visibilityQualifier();
+            nameToken = ((TypeDefinitionNode) member).typeName();
+        } else if (member instanceof ClassDefinitionNode) {
+            visibility = ((ClassDefinitionNode) member).visibilityQualifier();
+            nameToken = ((ClassDefinitionNode) member).className();
+        } else if (member instanceof ConstantDeclarationNode) {
+            visibility = ((ConstantDeclarationNode) member).visibilityQualifier();
+            nameToken = ((ConstantDeclarationNode) member).variableName();
+        } else if (member instanceof AnnotationDeclarationNode) {
+            visibility = ((AnnotationDeclarationNode) member).visibilityQualifier();
+            nameToken = ((AnnotationDeclarationNode) member).annotationTag();
+        } else if (member instanceof ListenerDeclarationNode) {
+            visibility = ((ListenerDeclarationNode) member).visibilityQualifier();
+            nameToken = ((ListenerDeclarationNode) member).variableName();
+        } else if (member instanceof EnumDeclarationNode) {
+            visibility = ((EnumDeclarationNode) member).qualifier();
+            nameToken = ((EnumDeclarationNode) member).identifier();
+        } else {
+            return List.of();
+        }
+        if (visibility.isEmpty() || nameToken.isMissing()) {
+            return List.of();
+        }
+
+        List<String> names = new ArrayList<>();
+        names.add(StringUtils.normalizedIdentifier(nameToken.text()));
+        if (member instanceof EnumDeclarationNode) {
+            for (Node enumMember : ((EnumDeclarationNode) member).enumMemberList()) {
+                if (enumMember instanceof EnumMemberNode) {
+                    String memberName = ((EnumMemberNode) enumMember).identifier().text();
+                    names.add(StringUtils.normalizedIdentifier(memberName));
+                }
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Reads an index file.
+     *
+     * @param indexFile Index file.
+     * @return Indexed modules, if the file exists and is of the current version.
+     * @throws IOException If the file could not be read.
+     */
+    private static Optional<Map<String, IndexedModule>> readIndex(Path indexFile) throws IOException {
+        if (!Files.isRegularFile(indexFile)) {
+            return Optional.empty();
+        }
+        byte[] content = Files.readAllBytes(indexFile);
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(content))) {
+            if (input.readInt() != INDEX_VERSION) {
+                return Optional.empty();
+            }
+            Map<String, IndexedModule> storedModules = new TreeMap<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                IndexedModule module = new IndexedModule(input.readUTF(), input.readUTF());
+                for (int j = input.readInt(); j > 0; j--) {
+                    module.versions.add(input.readUTF());
+                }
+                for (int j = input.readInt(); j > 0; j--) {
+                    module.publicSymbols.add(input.readUTF());
+                }
+                storedModules.put(key(module.orgName, module.moduleName), module);
+            }
+            return Optional.of(storedModules);
+        }
+    }
+
+    /**
+     * Serializes indexed modules to be written to an index file.
+     *
+     * @param indexedModules Indexed modules.
+     * @return Content of the index file.
+     * @throws IOException If serializing failed.
+     */
+    private static byte[] writeIndex(Map<String, IndexedModule> indexedModules) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(outputStream)) {
+            output.writeInt(INDEX_VERSION);
+            output.writeInt(indexedModules.size());
+            for (IndexedModule module : indexedModules.values()) {
+                output.writeUTF(module.orgName);
+                output.writeUTF(module.moduleName);
+                output.writeInt(module.versions.size());
+                for (String version : module.versions) {
+                    output.writeUTF(version);
+                }
+                output.writeInt(module.publicSymbols.size());
+                for (String symbol : module.publicSymbols) {
+                    output.writeUTF(symbol);
+                }
+            }
+        }
+        return outputStream.toByteArray();
+    }
+
+    /**
+     * Key of a module that does not depend on the quoting of the module name.
+     *
+     * @param orgName    Organization of the module.
+     * @param moduleName Name of the module.
+     * @return Module key.
+     */
+    private static String key(String orgName, String moduleName) {
+        String normalizedName = Stream.of(moduleName.split("\\."))
+                .map(StringUtils::normalizedIdentifier)
+                .collect(Collectors.joining("."));
+        return StringUtils.normalizedIdentifier(orgName) + "/" + normalizedName;
+    }
+
+    /**
+     * A module of the repository.
+     */
+    public static class IndexedModule {
+        private final String orgName;
+        private final String moduleName;
+        private final Set<String> versions;
+        private final Set<String> publicSymbols;
+
+        private IndexedModule(String orgName, String moduleName) {
+            this.orgName = orgName;
+            this.moduleName = moduleName;
+            this.versions = new TreeSet<>();
+            this.publicSymbols = new TreeSet<>();
+        }
+
+        public String getOrgName() {
+            return orgName;
+        }
+
+        public String getModuleName() {
+            return moduleName;
+        }
+
+        public Set<String> getVersions() {
+            return Collections.unmodifiableSet(versions);
+        }
+
+        public Set<String> getPublicSymbols() {
+            return Collections.unmodifiableSet(publicSymbols);
+        }
+
+        /**
+         * Prefix the module is imported as when no prefix is given.
+         * This is the last part of the module name.
+         *
+         * @return Default prefix.
+         */
+        public String defaultPrefix() {
+            return moduleName.substring(moduleName.lastIndexOf('.') + 1);
+        }
+
+        @Override
+        public String toString() {
+            return orgName + "/" + moduleName;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.invoker.classload.cache;
+
+import io.ballerina.shell.invoker.classload.HashedSymbol;
+import io.ballerina.shell.utils.FileUtils;
+import io.ballerina.shell.utils.StringUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Startup state of the invoker that only depends on the distribution and the shell.
+ * This is the set of symbols that are visible in the initial program (langlib symbols etc...).
+ * Snapshot is kept in memory so that a reset does not need to load it again,
+ * and in a file keyed by the distribution and the shell version so that
+ * a cold start does not need to compile the initial program.
+ * The snapshot is only valid for the initial program it was taken from.
+ */
+public class StartupSnapshot {
+    private static final int SNAPSHOT_VERSION = 1;
+    private static final String SNAPSHOT_DIRECTORY = "snapshots";
+    private static final String SNAPSHOT_EXTENSION = ".snapshot";
+    private static final String DEVELOPMENT_VERSION = "development";
+
+    private final Path snapshotFile;
+    private String sourceHash;
+    private Set<HashedSymbol> knownSymbols;
+
+    public StartupSnapshot() {
+        this(FileUtils.shellDirectory().resolve(SNAPSHOT_DIRECTORY)
+                .resolve(snapshotKey(ArtifactStore.versionKey(), shellVersion()) + SNAPSHOT_EXTENSION));
+    }
+
+    public StartupSnapshot(Path snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    /**
+     * Finds the known symbols of the initial program.
+     * The in memory snapshot is checked first and the snapshot file afterwards.
+     *
+     * @param source Initial program source.
+     * @return Known symbols if a snapshot of the same program exists.
+     * @throws IOException If the snapshot file exists but cannot be read.
+     */
+    public synchronized Optional<Set<HashedSymbol>> knownSymbols(String source) throws IOException {
+        String hash = StringUtils.hash(source);
+        if (knownSymbols != null && hash.equals(sourceHash)) {
+            return Optional.of(knownSymbols);
+        }
+        if (!Files.isRegularFile(snapshotFile)) {
+            return Optional.empty();
+        }
+
+        byte[] content = Files.readAllBytes(snapshotFile);
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(content))) {
+            if (input.readInt() != SNAPSHOT_VERSION || !hash.equals(input.readUTF())) {
+                return Optional.empty();
+            }
+            Set<HashedSymbol> symbols = new HashSet<>();
+            for (int i = input.readInt(); i > 0; i--) {
+                symbols.add(HashedSymbol.readFrom(input));
+            }
+            this.sourceHash = hash;
+            this.knownSymbols = Set.copyOf(symbols);
+            return Optional.of(knownSymbols);
+        }
+    }
+
+    /**
+     * Saves the known symbols of the initial program.
+     * The in memory snapshot is updated even if writing the file failed.
+     *
+     * @param source  Initial program source.
+     * @param symbols Symbols visible in the initial program.
+     * @throws IOException If writing the snapshot file failed.
+     */
+    public synchronized void save(String source, Collection<HashedSymbol> symbols) throws IOException {
+        this.sourceHash = StringUtils.hash(source);
+        this.knownSymbols = Set.copyOf(symbols);
+
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(outputStream)) {
+            output.writeInt(SNAPSHOT_VERSION);
+            output.writeUTF(sourceHash);
+            output.writeInt(knownSymbols.size());
+            for (HashedSymbol symbol : knownSymbols) {
+                symbol.writeTo(output);
+            }
+        }
+        FileUtils.writeAtomically(snapshotFile, outputStream.toByteArray());
+    }
+
+    public Path getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    /**
+     * Key of the snapshot for the given distribution and shell.
+     *
+     * @param versionKey   Version key of the distribution.
+     * @param shellVersion Version of the shell.
+     * @return Snapshot key.
+     */
+    public static String snapshotKey(String versionKey, String shellVersion) {
+        return StringUtils.hash(versionKey + "\n" + shellVersion);
+    }
+
+    /**
+     * Version of the shell as given in the jar manifest.
+     * Development builds do not have a version,
+     * but changes to the initial program are still detected by the source hash.
+     *
+     * @return Version of the shell.
+     */
+    private static String shellVersion() {
+        String version = StartupSnapshot.class.getPackage().getImplementationVersion();
+        return Objects.requireNonNullElse(version, DEVELOPMENT_VERSION);
+    }
+}
@@ -18,7 +18,6 @@
 
 package io.ballerina.shell.invoker.classload.context;
 
-import freemarker.ext.beans.TemplateAccessible;
 import io.ballerina.shell.invoker.classload.ClassLoadInvoker;
 import io.ballerina.shell.rt.InvokerMemory;
 
@@ -27,7 +26,7 @@ import java.util.List;
 import java.util.Objects;
 
 /**
- * Context that is used to populate the template
+ * Context that is used to generate the source
  * of {@link ClassLoadInvoker} objects.
  */
 public class ClassLoadContext {
@@ -40,7 +39,7 @@ public class ClassLoadContext {
 
     /**
      * Creates a context for class load invoker.
-     * A simple data class which is bound to the template.
+     * A simple data class which is used by the source emitter.
      * Of {@code varDclns} and {@code saveVarDclns}, the first value
      * should be the type descriptor. Second value should be the variable name.
      *
@@ -94,42 +93,34 @@ public class ClassLoadContext {
         this(contextId, imports, List.of(), List.of(), null);
     }
 
-    @TemplateAccessible
     public Collection<String> getImports() {
         return imports;
     }
 
-    @TemplateAccessible
     public Collection<String> getModuleDclns() {
         return moduleDclns;
     }
 
-    @TemplateAccessible
     public String getLastVarDcln() {
         return lastVarDcln;
     }
 
-    @TemplateAccessible
     public StatementContext getLastStmt() {
         return lastStmt;
     }
 
-    @TemplateAccessible
     public Collection<VariableContext> getVarDclns() {
         return varDclns;
     }
 
-    @TemplateAccessible
     public String getContextId() {
         return contextId;
     }
 
-    @TemplateAccessible
     public String getExprVarName() {
         return ClassLoadInvoker.CONTEXT_EXPR_VAR_NAME;
     }
 
-    @TemplateAccessible
     public String getMemoryRef() {
         return InvokerMemory.class.getCanonicalName();
     }
@@ -18,7 +18,6 @@
 
 package io.ballerina.shell.invoker.classload.context;
 
-import freemarker.ext.beans.TemplateAccessible;
 import io.ballerina.shell.snippet.types.ExecutableSnippet;
 
 /**
@@ -46,12 +45,10 @@ public class StatementContext {
         this.statement = snippet.isStatement();
     }
 
-    @TemplateAccessible
     public String getCode() {
         return code;
     }
 
-    @TemplateAccessible
     public boolean isStatement() {
         return statement;
     }
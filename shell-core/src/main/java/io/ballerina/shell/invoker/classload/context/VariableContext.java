@@ -18,7 +18,6 @@
 
 package io.ballerina.shell.invoker.classload.context;
 
-import freemarker.ext.beans.TemplateAccessible;
 import io.ballerina.shell.invoker.classload.GlobalVariable;
 import io.ballerina.shell.utils.StringUtils;
 
@@ -26,60 +25,75 @@ import io.ballerina.shell.utils.StringUtils;
  * A class to denote a variable declaration.
  * The {@code isNew} defines whether the variable was newly added.
  * For old variables, there should be an entry in the static memory class.
+ * The {@code isAssigned} defines whether the variable has to be written back to the memory.
  */
 public class VariableContext {
     private final String name;
     private final String type;
     private final boolean isNew;
     private final boolean isAny;
+    private final boolean isAssigned;
 
-    private VariableContext(String name, String type, boolean isNew, boolean isAny) {
-        this.name = StringUtils.quoted(name);
+    private VariableContext(String name, String type, boolean isNew, boolean isAny, boolean isAssigned) {
+        this.name = StringUtils.quoted(StringUtils.escapedIdentifier(name));
         this.type = type;
         this.isNew = isNew;
         this.isAny = isAny;
+        this.isAssigned = isAssigned;
     }
 
     /**
-     * Creates a new variable with the given type.
+     * Creates a new variable. Type of a new variable is not known
+     * until the program is compiled. So only the name is kept.
      *
-     * @param variableEntry A map entry indicating the variable name and type.
+     * @param variableName Name of the new variable.
      * @return Context for a new variable.
      */
-    public static VariableContext newVar(GlobalVariable variableEntry) {
-        return new VariableContext(variableEntry.getVariableName(), variableEntry.getType(), true,
-                variableEntry.getElevatedType().isAssignableToAny());
+    public static VariableContext newVar(String variableName) {
+        return new VariableContext(variableName, null, true, false, true);
     }
 
     /**
      * Creates a variable with given type for a existing variable.
+     * The variable is written back to the memory.
      *
      * @param variableEntry A map entry indicating the variable name and type.
      * @return Context for a old variable.
      */
     public static VariableContext oldVar(GlobalVariable variableEntry) {
+        return oldVar(variableEntry, true);
+    }
+
+    /**
+     * Creates a variable with given type for a existing variable.
+     *
+     * @param variableEntry A map entry indicating the variable name and type.
+     * @param isAssigned    Whether the variable may be assigned.
+     * @return Context for a old variable.
+     */
+    public static VariableContext oldVar(GlobalVariable variableEntry, boolean isAssigned) {
         return new VariableContext(variableEntry.getVariableName(), variableEntry.getType(), false,
-                variableEntry.getElevatedType().isAssignableToAny());
+                variableEntry.getElevatedType().isAssignableToAny(), isAssigned);
     }
 
-    @TemplateAccessible
     public String getName() {
         return name;
     }
 
-    @TemplateAccessible
     public String getType() {
         return type;
     }
 
-    @TemplateAccessible
     public boolean isNew() {
         return isNew;
     }
 
-    @TemplateAccessible
     public boolean isAny() {
         return isAny;
     }
+
+    public boolean isAssigned() {
+        return isAssigned;
+    }
 }
 
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.invoker.classload.visitors;
+
+import io.ballerina.shell.invoker.classload.ElevatedType;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Result of analyzing a type with {@link TypeAnalyzer}.
+ * Contains the type signature (with the import prefixes it needs),
+ * the elevated type, the types that are not visible to the REPL
+ * and the names of the types defined in the REPL that the type refers.
+ * Referred type names are kept without the quote and escapes.
+ */
+public class TypeAnalysis {
+    private final String signature;
+    private final ElevatedType elevatedType;
+    private final Set<String> implicitImportPrefixes;
+    private final List<String> invisibleTypes;
+    private final Set<String> referredTypeNames;
+
+    public TypeAnalysis(String signature, ElevatedType elevatedType, Set<String> implicitImportPrefixes,
+                        List<String> invisibleTypes, Set<String> referredTypeNames) {
+        this.signature = signature;
+        this.elevatedType = elevatedType;
+        this.implicitImportPrefixes = Set.copyOf(implicitImportPrefixes);
+        this.invisibleTypes = List.copyOf(invisibleTypes);
+        this.referredTypeNames = Set.copyOf(referredTypeNames);
+    }
+
+    public String getSignature() {
+        return signature;
+    }
+
+    public ElevatedType getElevatedType() {
+        return elevatedType;
+    }
+
+    public Set<String> getImplicitImportPrefixes() {
+        return implicitImportPrefixes;
+    }
+
+    public List<String> getInvisibleTypes() {
+        return invisibleTypes;
+    }
+
+    public Set<String> getReferredTypeNames() {
+        return referredTypeNames;
+    }
+
+    public boolean isVisible() {
+        return invisibleTypes.isEmpty();
+    }
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2021, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
  *
  * WSO2 Inc. licenses this file to you under the Apache License,
  * Version 2.0 (the "License"); you may not use this file except
@@ -16,6 +16,7 @@
  * under the License.
  */
 
+
 package io.ballerina.shell.invoker.classload.visitors;
 
 import io.ballerina.compiler.api.symbols.ArrayTypeSymbol;
@@ -41,76 +42,177 @@ import io.ballerina.compiler.api.symbols.TypeSymbol;
 import io.ballerina.compiler.api.symbols.UnionTypeSymbol;
 import io.ballerina.compiler.api.symbols.XMLTypeSymbol;
 import io.ballerina.shell.exceptions.InvokerException;
+import io.ballerina.shell.invoker.classload.ElevatedType;
 import io.ballerina.shell.invoker.classload.ImportProcessor;
 import io.ballerina.shell.utils.StringUtils;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.StringJoiner;
 import java.util.stream.Collectors;
 
 /**
- * Converts a type into its string format.
- * Any imports that need to be done are also calculated.
+ * Analyzes a type in a single traversal. Finds,
+ * the string format of the type (and the imports it needs),
+ * the elevated type (any/error/any|error),
+ * whether the type has parts that are not visible to the REPL and
+ * the types defined in the REPL that the type refers.
+ * <p>
  * Eg: if the type was abc/z:TypeA then it will be converted as
  * 'z:TypeA' and 'import abc/z' will be added as an import.
  * We need to traverse all the sub-typed because any sub-type
  * may need to be imported.
- * Eg: object {abc/c:P p;}. These situations are rare since most of the time,
- * the object or record is exported outright instead of specifying sub-types.
+ * <p>
+ * Analysis of every visited type is remembered with the kind and signature of the type.
+ * So a type that is seen again, even in a later compilation, is not traversed again.
+ * Import prefixes in the remembered signatures are valid until the imports are reset,
+ * so the analyzer must be cleared when the imports are reset.
+ * Signatures of the types defined in the session do not change when a type is redefined,
+ * so the analyzer must also be cleared when a module level declaration is defined.
  */
-public class TypeSignatureTransformer extends TypeSymbolTransformer<String> {
+public class TypeAnalyzer extends TypeSymbolTransformer<TypeAnalysis> {
     private static final String ANON_MODULE = "$anon";
 
     private final ImportProcessor importProcessor;
-    private final Set<String> implicitImportPrefixes;
-
-    public TypeSignatureTransformer(ImportProcessor importProcessor) {
-        this.implicitImportPrefixes = new HashSet<>();
+    private final Map<String, TypeAnalysis> analyses;
+    private Set<String> implicitImportPrefixes;
+    private List<String> invisibleTypes;
+    private Set<String> referredTypeNames;
+    private long hits;
+    private long misses;
+
+    public TypeAnalyzer(ImportProcessor importProcessor) {
         this.importProcessor = importProcessor;
+        this.analyses = new HashMap<>();
+        this.implicitImportPrefixes = new HashSet<>();
+        this.invisibleTypes = new ArrayList<>();
+        this.referredTypeNames = new HashSet<>();
+    }
+
+    /**
+     * Analyzes the type, or returns the previous analysis of the same type.
+     *
+     * @param typeSymbol Type to analyze.
+     * @return Analysis of the type.
+     */
+    public TypeAnalysis analyze(TypeSymbol typeSymbol) {
+        String typeKey = typeSymbol.typeKind().name() + " " + typeSymbol.signature();
+        TypeAnalysis analysis = analyses.get(typeKey);
+        if (analysis != null) {
+            hits++;
+            return analysis;
+        }
+        misses++;
+
+        // Parts of the type are collected separately and merged by the caller.
+        Set<String> parentImportPrefixes = implicitImportPrefixes;
+        List<String> parentInvisibleTypes = invisibleTypes;
+        Set<String> parentReferredTypeNames = referredTypeNames;
+        try {
+            implicitImportPrefixes = new HashSet<>();
+            invisibleTypes = new ArrayList<>();
+            referredTypeNames = new HashSet<>();
+            analysis = transformType(typeSymbol);
+        } finally {
+            implicitImportPrefixes = parentImportPrefixes;
+            invisibleTypes = parentInvisibleTypes;
+            referredTypeNames = parentReferredTypeNames;
+        }
+        analyses.put(typeKey, analysis);
+        return analysis;
+    }
+
+    /**
+     * Forget the analyzed types that need any of the given imports.
+     *
+     * @param prefixes Quoted prefixes of the imports.
+     */
+    public void forgetImports(Collection<String> prefixes) {
+        analyses.values().removeIf(analysis -> !Collections.disjoint(analysis.getImplicitImportPrefixes(), prefixes));
+    }
+
+    /**
+     * Forget all the analyzed types.
+     */
+    public void clear() {
+        analyses.clear();
+    }
+
+    /**
+     * Statistics of the remembered analyses.
+     *
+     * @return Statistics as displayable strings.
+     */
+    public List<String> statistics() {
+        return List.of(
+                String.format("(type analysis reuses) %s", hits),
+                String.format("(type analyses) %s", misses));
     }
 
     @Override
     protected void resetState() {
-        this.setState("");
+        this.setState(null);
     }
 
-    @Override
-    protected void visitParameter(ParameterSymbol parameterSymbol) {
+    /**
+     * Analyzes a part of the current type and merges its imports, invisible types and referred types.
+     *
+     * @param typeSymbol Part of the current type.
+     * @return Analysis of the part.
+     */
+    private TypeAnalysis analyzePart(TypeSymbol typeSymbol) {
+        TypeAnalysis analysis = analyze(typeSymbol);
+        implicitImportPrefixes.addAll(analysis.getImplicitImportPrefixes());
+        invisibleTypes.addAll(analysis.getInvisibleTypes());
+        referredTypeNames.addAll(analysis.getReferredTypeNames());
+        return analysis;
+    }
+
+    private String signatureOf(TypeSymbol typeSymbol) {
+        return analyzePart(typeSymbol).getSignature();
+    }
+
+    private void setState(String signature, ElevatedType elevatedType) {
+        this.setState(new TypeAnalysis(signature, elevatedType, implicitImportPrefixes,
+                invisibleTypes, referredTypeNames));
+    }
+
+    private String signatureOf(ParameterSymbol parameterSymbol) {
         StringJoiner joiner = new StringJoiner(" ");
         parameterSymbol.qualifiers().forEach(accessModifier -> joiner.add(accessModifier.getValue()));
         String signature;
         if (parameterSymbol.kind() == ParameterKind.REST) {
-            signature = transformType(parameterSymbol.typeDescriptor());
+            signature = signatureOf(parameterSymbol.typeDescriptor());
             signature = signature.substring(0, signature.length() - 2) + "...";
         } else {
-            signature = transformType(parameterSymbol.typeDescriptor());
+            signature = signatureOf(parameterSymbol.typeDescriptor());
         }
 
         joiner.add(signature);
         if (parameterSymbol.name().isPresent()) {
             joiner.add(parameterSymbol.name().get());
         }
-
-        this.setState(joiner.toString());
+        return joiner.toString();
     }
 
-    @Override
-    protected void visitField(FieldSymbol fieldSymbol) {
-        String fieldTypeRepr = transformType(fieldSymbol.typeDescriptor()) + " " + fieldSymbol.name();
+    private String signatureOf(FieldSymbol fieldSymbol) {
+        String fieldTypeRepr = signatureOf(fieldSymbol.typeDescriptor()) + " " + fieldSymbol.name();
         StringBuilder signature = new StringBuilder(fieldTypeRepr);
         if (fieldSymbol.isOptional()) {
             signature.append("?");
         }
-        this.setState(signature.toString());
+        return signature.toString();
     }
 
-    @Override
-    protected void visitMethod(MethodSymbol methodSymbol) {
+    private String signatureOf(MethodSymbol methodSymbol) {
         StringJoiner qualifierJoiner = new StringJoiner(" ");
         methodSymbol.qualifiers().stream().map(Qualifier::getValue).forEach(qualifierJoiner::add);
         qualifierJoiner.add("function ");
@@ -119,13 +221,12 @@ public class TypeSignatureTransformer extends TypeSymbolTransformer<String> {
         StringJoiner joiner = new StringJoiner(", ");
         signature.append(methodSymbol.name()).append("(");
 
-        methodSymbol.typeDescriptor().parameters().stream().map(this::transformParameter).forEach(joiner::add);
-        methodSymbol.typeDescriptor().restParam().map(this::transformParameter).ifPresent(joiner::add);
+        methodSymbol.typeDescriptor().parameters().stream().map(this::signatureOf).forEach(joiner::add);
+        methodSymbol.typeDescriptor().restParam().map(this::signatureOf).ifPresent(joiner::add);
         signature.append(joiner.toString()).append(")");
-        methodSymbol.typeDescriptor().returnTypeDescriptor().map(this::transformType)
+        methodSymbol.typeDescriptor().returnTypeDescriptor().map(this::signatureOf)
                 .ifPresent(retType -> signature.append(" returns ").append(retType));
-
-        this.setState(signature.toString());
+        return signature.toString();
     }
 
     @Override
@@ -133,8 +234,8 @@ public class TypeSignatureTransformer extends TypeSymbolTransformer<String> {
         // TODO: size is always empty. (Returns always Optional.empty)
         // BArrayType string is always in format TYPE[.....]
         String lengthRepr = symbol.size().map(String::valueOf).orElse("");
-        String stringRepr = transformType(symbol.memberTypeDescriptor()) + "[" + lengthRepr + "]";
-        this.setState(stringRepr);
+        String stringRepr = signatureOf(symbol.memberTypeDescriptor()) + "[" + lengthRepr + "]";
+        this.setState(stringRepr, ElevatedType.ANY);
     }
 
     @Override
@@ -142,37 +243,53 @@ public class TypeSignatureTransformer extends TypeSymbolTransformer<String> {
         // Functions are of function (PARAMETERS) RETURN format
         StringBuilder signature = new StringBuilder("function (");
         StringJoiner joiner = new StringJoiner(", ");
-        symbol.parameters().stream().map(this::transformParameter).forEach(joiner::add);
-        symbol.restParam().ifPresent(param -> joiner.add(transformParameter(param)));
+        symbol.parameters().stream().map(this::signatureOf).forEach(joiner::add);
+        symbol.restParam().ifPresent(param -> joiner.add(signatureOf(param)));
         signature.append(joiner.toString()).append(")");
         symbol.returnTypeDescriptor().ifPresent(typeDescriptor -> signature.append(" returns ")
-                .append(transformType(typeDescriptor)));
-        this.setState(signature.toString());
+                .append(signatureOf(typeDescriptor)));
+        this.setState(signature.toString(), ElevatedType.ANY);
     }
 
     @Override
     protected void visit(FutureTypeSymbol symbol) {
         // Future type of format future<TYPE>. TYPE is at least ().
-        String memberSignature = symbol.typeParameter().map(this::transformType).orElse("()");
+        String memberSignature = symbol.typeParameter().map(this::signatureOf).orElse("()");
         String stringRepr = "future<" + memberSignature + ">";
-        this.setState(stringRepr);
+        this.setState(stringRepr, ElevatedType.ANY);
     }
 
     @Override
     protected void visit(IntersectionTypeSymbol symbol) {
         // Intersection types. TYPE1 & TYPE2
-        List<TypeSymbol> memberTypes = symbol.memberTypeDescriptors();
         StringJoiner joiner = new StringJoiner(" & ");
-        memberTypes.forEach(typeDescriptor -> joiner.add(transformType(typeDescriptor)));
-        this.setState(joiner.toString());
+        ElevatedType currentType = ElevatedType.ANY_ERROR;
+        for (TypeSymbol memberSymbol : symbol.memberTypeDescriptors()) {
+            TypeAnalysis memberAnalysis = analyzePart(memberSymbol);
+            joiner.add(memberAnalysis.getSignature());
+
+            // Elevated type is the narrowest of the elevated member types.
+            ElevatedType memberElevatedType = memberAnalysis.getElevatedType();
+            if (currentType.equals(ElevatedType.ANY_ERROR)) {
+                currentType = memberElevatedType;
+            } else if (currentType == ElevatedType.NONE) {
+                continue;
+            } else if (memberElevatedType == ElevatedType.NONE) {
+                currentType = ElevatedType.NONE;
+            } else if (currentType != memberElevatedType &&
+                    memberElevatedType != ElevatedType.ANY_ERROR) {
+                currentType = ElevatedType.NONE;
+            }
+        }
+        this.setState(joiner.toString(), currentType);
     }
 
     @Override
     protected void visit(MapTypeSymbol symbol) {
         // String representation is map<CONSTRAINT>.
-        String typeRepr = symbol.typeParameter().map(this::transformType).orElse("");
+        String typeRepr = symbol.typeParameter().map(this::signatureOf).orElse("");
         String stringRepr = "map<" + typeRepr + ">";
-        this.setState(stringRepr);
+        this.setState(stringRepr, ElevatedType.ANY);
     }
 
     @Override
@@ -187,40 +304,39 @@ public class TypeSignatureTransformer extends TypeSymbolTransformer<String> {
         qualifierJoiner.add("object {");
         signature.append(qualifierJoiner.toString());
 
-        symbol.fieldDescriptors().stream().map(this::transformField).forEach(fieldJoiner::add);
-        symbol.methods().stream().map(this::transformMethod).forEach(method -> methodJoiner.add(method).add(";"));
+        symbol.fieldDescriptors().stream().map(this::signatureOf).forEach(fieldJoiner::add);
+        symbol.methods().stream().map(this::signatureOf).forEach(method -> methodJoiner.add(method).add(";"));
 
         String stringRepr = signature.append(fieldJoiner.toString())
                 .append(methodJoiner.toString()).append("}").toString();
-        this.setState(stringRepr);
+        this.setState(stringRepr, ElevatedType.ANY);
     }
 
     @Override
     protected void visit(RecordTypeSymbol symbol) {
         // Record type symbol.
-
         StringJoiner joiner;
         // TODO: Find a better way to decide if a symbol is sealed or not.
         boolean isRecordInclusive = !symbol.signature().endsWith("|}");
         if (isRecordInclusive) {
             joiner = new StringJoiner(" ", "{ ", " }");
-            symbol.fieldDescriptors().stream().map(fd -> transformField(fd) + ";").forEach(joiner::add);
+            symbol.fieldDescriptors().stream().map(fd -> signatureOf(fd) + ";").forEach(joiner::add);
         } else {
             joiner = new StringJoiner(" ", "{| ", " |}");
-            symbol.fieldDescriptors().stream().map(fd -> transformField(fd) + ";").forEach(joiner::add);
-            symbol.restTypeDescriptor().ifPresent(typeDescriptor -> joiner.add(transformType(typeDescriptor) + "...;"));
+            symbol.fieldDescriptors().stream().map(fd -> signatureOf(fd) + ";").forEach(joiner::add);
+            symbol.restTypeDescriptor().ifPresent(typeDescriptor -> joiner.add(signatureOf(typeDescriptor) + "...;"));
         }
-        this.setState("record " + joiner.toString());
+        this.setState("record " + joiner.toString(), ElevatedType.ANY);
     }
 
     @Override
     protected void visit(StreamTypeSymbol symbol) {
         // Stream is of format stream<TYPE>
         StringBuilder sigBuilder = new StringBuilder("stream<");
-        sigBuilder.append(transformType(symbol.typeParameter()));
-        symbol.completionValueTypeParameter().ifPresent(t -> sigBuilder.append(", ").append(transformType(t)));
+        sigBuilder.append(signatureOf(symbol.typeParameter()));
+        symbol.completionValueTypeParameter().ifPresent(t -> sigBuilder.append(", ").append(signatureOf(t)));
         sigBuilder.append('>');
-        this.setState(sigBuilder.toString());
+        this.setState(sigBuilder.toString(), ElevatedType.ANY);
     }
 
     @Override
@@ -230,8 +346,8 @@ public class TypeSignatureTransformer extends TypeSymbolTransformer<String> {
         Optional<TypeSymbol> keyConstraint = symbol.keyConstraintTypeParameter();
         List<String> keySpecifiers = symbol.keySpecifiers();
 
-        sigBuilder.append('<').append(transformType(symbol.rowTypeParameter())).append('>');
-        keyConstraint.ifPresent(t -> sigBuilder.append(" key<").append(transformType(t)).append(">"));
+        sigBuilder.append('<').append(signatureOf(symbol.rowTypeParameter())).append('>');
+        keyConstraint.ifPresent(t -> sigBuilder.append(" key<").append(signatureOf(t)).append(">"));
 
         if (!keySpecifiers.isEmpty()) {
             StringJoiner specifiersBuilder = new StringJoiner(",", "(", ")");
@@ -239,41 +355,59 @@ public class TypeSignatureTransformer extends TypeSymbolTransformer<String> {
             sigBuilder.append(" key").append(specifiersBuilder.toString());
         }
 
-        this.setState(sigBuilder.toString());
+        this.setState(sigBuilder.toString(), ElevatedType.ANY);
     }
 
     @Override
     protected void visit(TupleTypeSymbol symbol) {
         // Tuple type. [TYPE1, TYPE2, ...]
         StringJoiner joiner = new StringJoiner(", ");
-        symbol.memberTypeDescriptors().stream().map(this::transformType).forEach(joiner::add);
+        symbol.memberTypeDescriptors().stream().map(this::signatureOf).forEach(joiner::add);
         if (symbol.restTypeDescriptor().isPresent()) {
-            joiner.add("..." + transformType(symbol.restTypeDescriptor().get()));
+            joiner.add("..." + signatureOf(symbol.restTypeDescriptor().get()));
         }
-        this.setState("[" + joiner.toString() + "]");
+        this.setState("[" + joiner.toString() + "]", ElevatedType.ANY);
     }
 
     @Override
     protected void visit(TypeDescTypeSymbol symbol) {
         // A general type desc with/without parameters. TYPE<PARAMS>
-        String paramRepr = symbol.typeParameter().map(param -> "<" + transformType(param) + ">").orElse("");
-        this.setState("typedesc" + paramRepr);
+        String paramRepr = symbol.typeParameter().map(param -> "<" + signatureOf(param) + ">").orElse("");
+        this.setState("typedesc" + paramRepr, ElevatedType.ANY);
     }
 
     @Override
     protected void visit(UnionTypeSymbol symbol) {
         // If optional type, it will be TYPE?
         // If union type, it will be TYPE1|TYPE2.
-        String stringRepr;
         List<TypeSymbol> memberTypes = symbol.memberTypeDescriptors();
+        List<TypeAnalysis> memberAnalyses = memberTypes.stream().map(this::analyzePart)
+                .collect(Collectors.toList());
+        String stringRepr;
         if (memberTypes.size() == 2 && memberTypes.get(1).typeKind() == TypeDescKind.NIL) {
-            stringRepr = transformType(memberTypes.get(0)) + "?";
+            stringRepr = memberAnalyses.get(0).getSignature() + "?";
         } else {
             StringJoiner joiner = new StringJoiner("|");
-            memberTypes.forEach(typeDescriptor -> joiner.add(transformType(typeDescriptor)));
+            memberAnalyses.forEach(memberAnalysis -> joiner.add(memberAnalysis.getSignature()));
             stringRepr = joiner.toString();
         }
-        this.setState(stringRepr);
+
+        // Elevated type is the widest of the elevated member types.
+        ElevatedType currentType = ElevatedType.NONE;
+        for (TypeAnalysis memberAnalysis : memberAnalyses) {
+            ElevatedType memberElevatedType = memberAnalysis.getElevatedType();
+            if (currentType == ElevatedType.ANY_ERROR) {
+                break;
+            } else if (currentType == ElevatedType.NONE) {
+                currentType = memberElevatedType;
+            } else if (memberElevatedType == ElevatedType.ANY_ERROR) {
+                currentType = ElevatedType.ANY_ERROR;
+            } else if (currentType != memberElevatedType &&
+                    memberElevatedType != ElevatedType.NONE) {
+                currentType = ElevatedType.ANY_ERROR;
+            }
+        }
+        this.setState(stringRepr, currentType);
     }
 
     @Override
@@ -283,25 +417,41 @@ public class TypeSignatureTransformer extends TypeSymbolTransformer<String> {
         String stringRepr = "xml";
         // TODO: Find better way to check if xml type is empty. (BType is xmlType)
         if (!symbol.signature().equals("xml")) {
-            String typeRepr = symbol.typeParameter().map(this::transformType).orElse("never");
+            String typeRepr = symbol.typeParameter().map(this::signatureOf).orElse("never");
             stringRepr = "xml<" + typeRepr + ">";
         }
-        this.setState(stringRepr);
+        this.setState(stringRepr, ElevatedType.ANY);
     }
 
     @Override
     protected void visit(ErrorTypeSymbol symbol) {
-        this.setState(transformExternalRefType(symbol));
+        setVisibility(symbol, true);
+        this.setState(transformExternalRefType(symbol), ElevatedType.ERROR);
     }
 
     @Override
     protected void visit(TypeReferenceTypeSymbol symbol) {
-        this.setState(transformExternalRefType(symbol));
+        setVisibility(symbol, true);
+        this.setState(transformExternalRefType(symbol), ElevatedType.ANY);
     }
 
     @Override
     protected void visit(TypeSymbol symbol) {
-        setState(symbol.signature());
+        setState(symbol.signature(), ElevatedType.ANY);
+    }
+
+    /**
+     * Sets the visibility depending on the type given.
+     * This would elevate the type if a visited type is not visible.
+     * TODO: Implement isVisible finding via type.
+     *
+     * @param typeSymbol Type to check.
+     * @param isVisible  Whether the type is known to be visible.
+     */
+    private void setVisibility(TypeSymbol typeSymbol, boolean isVisible) {
+        if (isExternalModule(typeSymbol) && !isVisible) {
+            this.invisibleTypes.add(typeSymbol.signature());
+        }
     }
 
     /**
@@ -317,11 +467,10 @@ public class TypeSignatureTransformer extends TypeSymbolTransformer<String> {
             typeName = typeSignature.substring(typeSignature.lastIndexOf(':') + 1);
         }
 
-        if (typeSymbol.moduleID().orgName().equals(ANON_MODULE)
-                || (typeSymbol.moduleID().moduleName().equals("lang.annotations")
-                && typeSymbol.moduleID().orgName().equals("ballerina"))) {
+        if (!isExternalModule(typeSymbol)) {
             // No import required. If the name is not found,
             // signature can be used without module parts.
+            referredTypeNames.add(StringUtils.normalizedIdentifier(typeName));
             return typeName;
 
         } else {
@@ -340,11 +489,15 @@ public class TypeSignatureTransformer extends TypeSymbolTransformer<String> {
     }
 
     /**
-     * Get all the implicitly imported import prefixes.
+     * Whether the type is defined in a module other than the REPL module.
+     * Types of the annotations lang library can be used without imports as well.
      *
-     * @return Set of implicit prefixes.
+     * @param typeSymbol Type to check.
+     * @return Whether the type needs an import.
      */
-    public Collection<String> getImplicitImportPrefixes() {
-        return implicitImportPrefixes;
+    private boolean isExternalModule(TypeSymbol typeSymbol) {
+        return !(typeSymbol.moduleID().orgName().equals(ANON_MODULE)
+                || (typeSymbol.moduleID().moduleName().equals("lang.annotations")
+                && typeSymbol.moduleID().orgName().equals("ballerina")));
     }
 }
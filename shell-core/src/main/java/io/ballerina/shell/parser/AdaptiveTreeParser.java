@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.shell.parser;
+
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.LocalTypeDefinitionStatementNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.VariableDeclarationNode;
+import io.ballerina.compiler.syntax.tree.XMLNamespaceDeclarationNode;
+import io.ballerina.shell.Diagnostic;
+import io.ballerina.shell.exceptions.TreeParserException;
+import io.ballerina.shell.parser.trials.ParserBusyException;
+import io.ballerina.shell.parser.trials.ParserRejectedException;
+import io.ballerina.shell.parser.trials.ParserTrialFailedException;
+import io.ballerina.shell.parser.trials.ParserTrialTimedOutException;
+import io.ballerina.shell.parser.trials.StatementTrial;
+import io.ballerina.shell.parser.trials.TreeParserTrial;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Parses the source code line trying the likeliest trials first.
+ * Successful trials are counted per lexical feature of the input (see {@link TrialStatistics})
+ * and the trials are ordered by their counts for the feature of the next input.
+ * Speculative parses are not counted, since they parse inputs that are still being typed.
+ * <p>
+ * Only the trials that classify the input are reordered.
+ * Import and rejection trials still run first and the error message trial last.
+ * A statement found before the expression and module member trials are tried is only
+ * accepted if neither of them could have claimed it. Otherwise those trials are tried,
+ * in their usual order, so that the input is classified the same as by {@link SerialTreeParser}.
+ */
+public class AdaptiveTreeParser extends TrialTreeParser {
+    private static final int LEADING_TRIALS = 2;
+    private static final int TRAILING_TRIALS = 1;
+
+    private final List<TreeParserTrial> nodeParserTrials;
+    private final TrialStatistics statistics;
+
+    public AdaptiveTreeParser(long timeOutDurationMs, TrialStatistics statistics) {
+        super(timeOutDurationMs);
+        this.nodeParserTrials = defaultTrials();
+        this.statistics = statistics;
+    }
+
+    @Override
+    protected Node parse(String source, boolean speculative) throws TreeParserException {
+        String feature = TrialStatistics.feature(source);
+        List<TreeParserTrial> orderedTrials = orderedTrials(feature);
+        Set<TreeParserTrial> attemptedTrials = new HashSet<>();
+        String errorMessage = "";
+        int timedOutTrials = 0;
+        for (int i = 0; i < orderedTrials.size(); i++) {
+            TreeParserTrial trial = orderedTrials.get(i);
+            attemptedTrials.add(trial);
+            try {
+                Node node = Objects.requireNonNull(trial.parse(source, speculative), "trial returned no nodes");
+                TreeParserTrial winner = earlierWinner(trial, node, source, speculative, attemptedTrials);
+                if (winner != trial) {
+                    node = winner.parse(source, speculative);
+                }
+                if (!speculative) {
+                    statistics.record(feature, winner.getClass().getSimpleName());
+                }
+                return node;
+            } catch (ParserTrialTimedOutException e) {
+                errorMessage = e.getMessage();
+                if (++timedOutTrials >= MAX_TIMED_OUT_TRIALS) {
+                    trialsSkipped(orderedTrials.size() - i - 1);
+                    break;
+                }
+            } catch (ParserTrialFailedException e) {
+                errorMessage = e.getMessage();
+            } catch (ParserBusyException e) {
+                errorMessage = e.getMessage();
+                break;
+            } catch (ParserRejectedException e) {
+                errorMessage = "Invalid statement: " + e.getMessage();
+                break;
+            } catch (Exception e) {
+                errorMessage = "Invalid statement. Could not parse the expression: " + e.getMessage();
+            } catch (Error e) {
+                errorMessage = "Something severely went wrong: " + e.toString();
+            }
+        }
+        addDiagnostic(Diagnostic.error(errorMessage));
+        addDiagnostic(Diagnostic.error("Parsing aborted because of errors."));
+        throw new TreeParserException();
+    }
+
+    /**
+     * Trials ordered for the feature.
+     * Classifying trials are sorted by their success counts, keeping the usual order for equal counts.
+     *
+     * @param feature Feature of the input.
+     * @return Ordered trials.
+     */
+    private List<TreeParserTrial> orderedTrials(String feature) {
+        int reorderedEnd = nodeParserTrials.size() - TRAILING_TRIALS;
+        List<TreeParserTrial> reorderedTrials = new ArrayList<>(nodeParserTrials.subList(LEADING_TRIALS, reorderedEnd));
+        reorderedTrials.sort(Comparator.comparingInt(
+                (TreeParserTrial trial) -> statistics.count(feature, trial.getClass().getSimpleName())).reversed());
+
+        List<TreeParserTrial> orderedTrials = new ArrayList<>(nodeParserTrials.subList(0, LEADING_TRIALS));
+        orderedTrials.addAll(reorderedTrials);
+        orderedTrials.addAll(nodeParserTrials.subList(reorderedEnd, nodeParserTrials.size()));
+        return orderedTrials;
+    }
+
+    /**
+     * Finds the trial that would have succeeded first in the usual order.
+     * Trials usually before the successful trial are only tried
+     * if the parsed node is of a kind that one of them could have claimed.
+     *
+     * @param trial           Trial that succeeded.
+     * @param node            Node parsed by the trial.
+     * @param source          Input source.
+     * @param speculative     Whether the input is still being typed.
+     * @param attemptedTrials Trials that were already tried.
+     * @return The trial that succeeds first in the usual order.
+     */
+    private TreeParserTrial earlierWinner(TreeParserTrial trial, Node node, String source, boolean speculative,
+                                          Set<TreeParserTrial> attemptedTrials) {
+        if (!mayBeClaimedEarlier(trial, node)) {
+            return trial;
+        }
+        for (TreeParserTrial earlierTrial : nodeParserTrials.subList(0, nodeParserTrials.indexOf(trial))) {
+            if (attemptedTrials.contains(earlierTrial)) {
+                continue;
+            }
+            try {
+                earlierTrial.parse(source, speculative);
+                return earlierTrial;
+            } catch (ParserTrialFailedException | RuntimeException ignored) {
+                // Earlier trial does not claim the input.
+            }
+        }
+        return trial;
+    }
+
+    /**
+     * Whether a trial that is usually tried earlier could also parse the input.
+     * Expression and module member trials only overlap with the statement trial,
+     * on expressions and on declarations that are also valid at the module level.
+     *
+     * @param trial Trial that succeeded.
+     * @param node  Node parsed by the trial.
+     * @return Whether an earlier trial could have succeeded.
+     */
+    private static boolean mayBeClaimedEarlier(TreeParserTrial trial, Node node) {
+        return trial instanceof StatementTrial && (node instanceof ExpressionNode
+                || node instanceof VariableDeclarationNode
+                || node instanceof LocalTypeDefinitionStatementNode
+                || node instanceof XMLNamespaceDeclarationNode);
+    }
+
+    @Override
+    public void shutdown() {
+        statistics.save();
+        super.shutdown();
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.shell.parser;
+
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.shell.Diagnostic;
+import io.ballerina.shell.exceptions.TreeParserException;
+import io.ballerina.shell.parser.trials.ParserBusyException;
+import io.ballerina.shell.parser.trials.ParserRejectedException;
+import io.ballerina.shell.parser.trials.ParserTrialFailedException;
+import io.ballerina.shell.parser.trials.ParserTrialTimedOutException;
+import io.ballerina.shell.parser.trials.TreeParserTrial;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses the source code line by racing the trials against each other.
+ * All the trials except the last one are run at once, and the results are
+ * taken in the order of the trials. So a trial only wins after every trial before it failed,
+ * which gives the same result as {@link SerialTreeParser} without waiting for each failed trial in turn.
+ * The last trial is only run (on its own) if every other trial failed, to find the error message.
+ * Trials that are not needed anymore are cancelled once the result is known, along with their parses.
+ * A cancelled trial starts no more parses, but a parse that already started runs until it completes
+ * (see {@link TrialTreeParser}), so racing keeps more parse threads busy than parsing serially.
+ */
+public class ParallelTreeParser extends TrialTreeParser {
+    private static final int PARALLEL_PARSE_THREADS = 4 * MAX_PARSE_THREADS;
+    private static final int PARALLEL_SPECULATIVE_PARSE_THREADS = 2 * MAX_PARSE_THREADS;
+    private static final String THREAD_NAME = "shell-trial-runner";
+    private static final long TRIAL_THREAD_KEEP_ALIVE_MS = 30_000;
+
+    private final List<TreeParserTrial> nodeParserTrials;
+    private final ExecutorService trialExecutor;
+
+    public ParallelTreeParser(long timeOutDurationMs) {
+        super(timeOutDurationMs, PARALLEL_PARSE_THREADS, PARALLEL_SPECULATIVE_PARSE_THREADS);
+        this.nodeParserTrials = defaultTrials();
+        int racedTrialCount = nodeParserTrials.size() - 1;
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(racedTrialCount, racedTrialCount,
+                TRIAL_THREAD_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, THREAD_NAME);
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.allowCoreThreadTimeOut(true);
+        this.trialExecutor = executor;
+    }
+
+    @Override
+    protected Node parse(String source, boolean speculative) throws TreeParserException {
+        int racedTrialCount = nodeParserTrials.size() - 1;
+        List<Future<Node>> racedTrials = new ArrayList<>();
+        try {
+            for (TreeParserTrial trial : nodeParserTrials.subList(0, racedTrialCount)) {
+                racedTrials.add(trialExecutor.submit(() -> trial.parse(source, speculative)));
+            }
+        } catch (RejectedExecutionException e) {
+            racedTrials.forEach(future -> future.cancel(true));
+            return abort("Tree parser was shut down.");
+        }
+
+        String errorMessage = "";
+        int timedOutTrials = 0;
+        try {
+            for (int i = 0; i < racedTrialCount; i++) {
+                try {
+                    return Objects.requireNonNull(racedTrials.get(i).get(), "trial returned no nodes");
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof ParserTrialTimedOutException) {
+                        errorMessage = cause.getMessage();
+                        if (++timedOutTrials >= MAX_TIMED_OUT_TRIALS) {
+                            trialsSkipped(nodeParserTrials.size() - i - 1);
+                            return abort(errorMessage);
+                        }
+                    } else if (cause instanceof ParserTrialFailedException) {
+                        errorMessage = cause.getMessage();
+                    } else if (cause instanceof ParserBusyException) {
+                        return abort(cause.getMessage());
+                    } else if (cause instanceof ParserRejectedException) {
+                        return abort("Invalid statement: " + cause.getMessage());
+                    } else if (cause instanceof Exception) {
+                        errorMessage = "Invalid statement. Could not parse the expression: " + cause.getMessage();
+                    } else {
+                        errorMessage = "Something severely went wrong: " + cause.toString();
+                    }
+                } catch (NullPointerException e) {
+                    errorMessage = "Invalid statement. Could not parse the expression: " + e.getMessage();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return abort("Tree parsing was interrupted.");
+        } finally {
+            racedTrials.forEach(future -> future.cancel(true));
+        }
+
+        // Every raced trial failed, the last trial finds the error message.
+        try {
+            TreeParserTrial lastTrial = nodeParserTrials.get(racedTrialCount);
+            return Objects.requireNonNull(lastTrial.parse(source, speculative), "trial returned no nodes");
+        } catch (ParserTrialFailedException | ParserBusyException e) {
+            errorMessage = e.getMessage();
+        } catch (ParserRejectedException e) {
+            errorMessage = "Invalid statement: " + e.getMessage();
+        } catch (Exception e) {
+            errorMessage = "Invalid statement. Could not parse the expression: " + e.getMessage();
+        } catch (Error e) {
+            errorMessage = "Something severely went wrong: " + e.toString();
+        }
+        return abort(errorMessage);
+    }
+
+    /**
+     * Reports the error and fails the parse.
+     *
+     * @param errorMessage Error to report.
+     * @return Never returns.
+     * @throws TreeParserException Always.
+     */
+    private Node abort(String errorMessage) throws TreeParserException {
+        addDiagnostic(Diagnostic.error(errorMessage));
+        addDiagnostic(Diagnostic.error("Parsing aborted because of errors."));
+        throw new TreeParserException();
+    }
+
+    @Override
+    public void shutdown() {
+        trialExecutor.shutdownNow();
+        super.shutdown();
+    }
+}
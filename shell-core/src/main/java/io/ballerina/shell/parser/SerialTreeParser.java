@@ -21,15 +21,10 @@ package io.ballerina.shell.parser;
 import io.ballerina.compiler.syntax.tree.Node;
 import io.ballerina.shell.Diagnostic;
 import io.ballerina.shell.exceptions.TreeParserException;
-import io.ballerina.shell.parser.trials.EmptyExpressionTrial;
-import io.ballerina.shell.parser.trials.ExpressionTrial;
-import io.ballerina.shell.parser.trials.GetErrorMessageTrial;
-import io.ballerina.shell.parser.trials.ImportDeclarationTrial;
-import io.ballerina.shell.parser.trials.ModuleMemberTrial;
+import io.ballerina.shell.parser.trials.ParserBusyException;
 import io.ballerina.shell.parser.trials.ParserRejectedException;
 import io.ballerina.shell.parser.trials.ParserTrialFailedException;
-import io.ballerina.shell.parser.trials.RejectInvalidStmtTrial;
-import io.ballerina.shell.parser.trials.StatementTrial;
+import io.ballerina.shell.parser.trials.ParserTrialTimedOutException;
 import io.ballerina.shell.parser.trials.TreeParserTrial;
 
 import java.util.List;
@@ -39,31 +34,37 @@ import java.util.Objects;
  * Parses the source code line using a trial based method.
  * The source code is placed in several places and is attempted to parse.
  * This continues until the correct type can be determined.
+ * The input is given up on once several trials time out,
+ * since later trials would parse the same input and time out as well.
+ * A single time out is tolerated, since the first parse of a session may be slow.
  */
 public class SerialTreeParser extends TrialTreeParser {
     private final List<TreeParserTrial> nodeParserTrials;
 
     public SerialTreeParser(long timeOutDurationMs) {
         super(timeOutDurationMs);
-        this.nodeParserTrials = List.of(
-                new ImportDeclarationTrial(this),
-                new RejectInvalidStmtTrial(this),
-                new ModuleMemberTrial(this),
-                new ExpressionTrial(this),
-                new StatementTrial(this),
-                new EmptyExpressionTrial(this),
-                new GetErrorMessageTrial(this)
-        );
+        this.nodeParserTrials = defaultTrials();
     }
 
     @Override
-    public Node parse(String source) throws TreeParserException {
+    protected Node parse(String source, boolean speculative) throws TreeParserException {
         String errorMessage = "";
-        for (TreeParserTrial trial : nodeParserTrials) {
+        int timedOutTrials = 0;
+        for (int i = 0; i < nodeParserTrials.size(); i++) {
+            TreeParserTrial trial = nodeParserTrials.get(i);
             try {
-                return Objects.requireNonNull(trial.parse(source), "trial returned no nodes");
+                return Objects.requireNonNull(trial.parse(source, speculative), "trial returned no nodes");
+            } catch (ParserTrialTimedOutException e) {
+                errorMessage = e.getMessage();
+                if (++timedOutTrials >= MAX_TIMED_OUT_TRIALS) {
+                    trialsSkipped(nodeParserTrials.size() - i - 1);
+                    break;
+                }
             } catch (ParserTrialFailedException e) {
                 errorMessage = e.getMessage();
+            } catch (ParserBusyException e) {
+                errorMessage = e.getMessage();
+                break;
             } catch (ParserRejectedException e) {
                 errorMessage = "Invalid statement: " + e.getMessage();
                 break;
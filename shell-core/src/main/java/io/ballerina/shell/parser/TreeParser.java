@@ -22,6 +22,8 @@ import io.ballerina.compiler.syntax.tree.Node;
 import io.ballerina.shell.DiagnosticReporter;
 import io.ballerina.shell.exceptions.TreeParserException;
 
+import java.util.List;
+
 /**
  * In this stage the correct syntax tree is identified.
  * The root node of the syntax tree must be the corresponding
@@ -39,4 +41,32 @@ public abstract class TreeParser extends DiagnosticReporter {
      * @return Syntax tree for the source code.
      */
     public abstract Node parse(String statement) throws TreeParserException;
+
+    /**
+     * Parses an input that is still being typed and may never be evaluated.
+     * Parsers that keep state about the parsed inputs must not update it here.
+     *
+     * @param statement Input source code statement.
+     * @return Syntax tree for the source code.
+     */
+    public Node speculativeParse(String statement) throws TreeParserException {
+        return parse(statement);
+    }
+
+    /**
+     * Statistics of the parser as a list of strings.
+     * Parsers without statistics return an empty list.
+     *
+     * @return Parser statistics.
+     */
+    public List<String> statistics() {
+        return List.of();
+    }
+
+    /**
+     * Releases the threads held by the parser.
+     * The parser must not be used afterwards.
+     */
+    public void shutdown() {
+    }
 }
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.shell.parser;
+
+import io.ballerina.shell.utils.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Counts of which trial succeeded for inputs of each lexical feature.
+ * The feature of an input is its first token and whether it ends with a semicolon.
+ * Counts are kept in memory and saved to a file every few records,
+ * so that later sessions start with the counts of the previous ones.
+ * Only the records since the last save are added to the counts in the file,
+ * so that counts saved by other sessions in the meantime are kept.
+ * The number of features is bounded, since the first token is often a user defined name.
+ */
+public class TrialStatistics {
+    private static final int STATISTICS_VERSION = 1;
+    private static final String STATISTICS_FILE = "parser/trial.statistics";
+    private static final int MAX_FEATURES = 1024;
+    private static final int RECORDS_PER_SAVE = 32;
+    private static final String SEMICOLON = ";";
+    private static final Pattern FIRST_TOKEN_PATTERN = Pattern.compile("^(?:'?[\\p{L}_][\\p{L}\\p{N}_]*|\\S)");
+
+    private static TrialStatistics sharedStatistics;
+
+    private final Path statisticsFile;
+    private final Map<String, Map<String, Integer>> unsavedCounts;
+    private Map<String, Map<String, Integer>> counts;
+    private int unsavedRecords;
+
+    public TrialStatistics(Path statisticsFile) {
+        this.statisticsFile = statisticsFile;
+        this.unsavedCounts = new HashMap<>();
+    }
+
+    /**
+     * Statistics that are shared by all the parsers.
+     *
+     * @return Shared statistics.
+     */
+    public static synchronized TrialStatistics sharedStatistics() {
+        if (sharedStatistics == null) {
+            sharedStatistics = new TrialStatistics(FileUtils.shellDirectory().resolve(STATISTICS_FILE));
+        }
+        return sharedStatistics;
+    }
+
+    /**
+     * Lexical feature of an input.
+     * This is the first token and a semicolon if the input ends with one. (eg: {@code int;})
+     *
+     * @param source Input source.
+     * @return Feature of the input.
+     */
+    public static String feature(String source) {
+        String trimmedSource = source.strip();
+        Matcher matcher = FIRST_TOKEN_PATTERN.matcher(trimmedSource);
+        String firstToken = matcher.find() ? matcher.group() : "";
+        return trimmedSource.endsWith(SEMICOLON) ? firstToken + SEMICOLON : firstToken;
+    }
+
+    /**
+     * Counts a success of a trial for the feature.
+     * Counts are saved once enough records are made.
+     *
+     * @param feature   Feature of the input.
+     * @param trialName Name of the trial that succeeded.
+     */
+    public synchronized void record(String feature, String trialName) {
+        Map<String, Map<String, Integer>> currentCounts = loadedCounts();
+        if (!currentCounts.containsKey(feature) && currentCounts.size() >= MAX_FEATURES) {
+            return;
+        }
+        currentCounts.computeIfAbsent(feature, k -> new HashMap<>()).merge(trialName, 1, Integer::sum);
+        unsavedCounts.computeIfAbsent(feature, k -> new HashMap<>()).merge(trialName, 1, Integer::sum);
+        if (++unsavedRecords >= RECORDS_PER_SAVE) {
+            save();
+        }
+    }
+
+    /**
+     * Number of successes of a trial for the feature.
+     *
+     * @param feature   Feature of the input.
+     * @param trialName Name of the trial.
+     * @return Success count.
+     */
+    public synchronized int count(String feature, String trialName) {
+        return loadedCounts().getOrDefault(feature, Map.of()).getOrDefault(trialName, 0);
+    }
+
+    /**
+     * Adds the records since the last save to the counts in the statistics file.
+     * The counts in memory are replaced by the merged counts, which include the records of other sessions.
+     * Failures are ignored since the counts are only used to order the trials.
+     */
+    public synchronized void save() {
+        try {
+            FileUtils.updateAtomically(statisticsFile, content -> {
+                Map<String, Map<String, Integer>> mergedCounts = readCounts(content);
+                for (Map.Entry<String, Map<String, Integer>> featureCounts : unsavedCounts.entrySet()) {
+                    if (!mergedCounts.containsKey(featureCounts.getKey()) && mergedCounts.size() >= MAX_FEATURES) {
+                        continue;
+                    }
+                    Map<String, Integer> mergedFeatureCounts =
+                            mergedCounts.computeIfAbsent(featureCounts.getKey(), k -> new HashMap<>());
+                    featureCounts.getValue().forEach((trialName, count) ->
+                            mergedFeatureCounts.merge(trialName, count, Integer::sum));
+                }
+                counts = mergedCounts;
+                return writeCounts(mergedCounts);
+            });
+            unsavedCounts.clear();
+            unsavedRecords = 0;
+        } catch (IOException | UncheckedIOException ignored) {
+            // Counts are saved again with the next records.
+        }
+    }
+
+    /**
+     * Counts in memory, read from the statistics file if not read yet.
+     *
+     * @return Counts keyed by feature and trial name.
+     */
+    private Map<String, Map<String, Integer>> loadedCounts() {
+        if (counts != null) {
+            return counts;
+        }
+        byte[] content;
+        try {
+            content = Files.isRegularFile(statisticsFile) ? Files.readAllBytes(statisticsFile) : new byte[0];
+        } catch (IOException e) {
+            content = new byte[0];
+        }
+        counts = readCounts(content);
+        return counts;
+    }
+
+    /**
+     * Reads the counts in the content of the statistics file.
+     * An unreadable or outdated file is treated as empty.
+     *
+     * @param content Content of the statistics file.
+     * @return Counts keyed by feature and trial name.
+     */
+    private static Map<String, Map<String, Integer>> readCounts(byte[] content) {
+        Map<String, Map<String, Integer>> storedCounts = new HashMap<>();
+        try (DataInputStream input = new DataInputStream(new ByteArrayInputStream(content))) {
+            if (input.readInt() != STATISTICS_VERSION) {
+                return storedCounts;
+            }
+            for (int i = input.readInt(); i > 0; i--) {
+                Map<String, Integer> featureCounts = new HashMap<>();
+                storedCounts.put(input.readUTF(), featureCounts);
+                for (int j = input.readInt(); j > 0; j--) {
+                    featureCounts.put(input.readUTF(), input.readInt());
+                }
+            }
+        } catch (IOException e) {
+            // Counting starts again
+            return new HashMap<>();
+        }
+        return storedCounts;
+    }
+
+    /**
+     * Content of the statistics file with the given counts.
+     *
+     * @param counts Counts keyed by feature and trial name.
+     * @return Content of the statistics file.
+     */
+    private static byte[] writeCounts(Map<String, Map<String, Integer>> counts) {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(outputStream)) {
+            output.writeInt(STATISTICS_VERSION);
+            output.writeInt(counts.size());
+            for (Map.Entry<String, Map<String, Integer>> featureCounts : counts.entrySet()) {
+                output.writeUTF(featureCounts.getKey());
+                output.writeInt(featureCounts.getValue().size());
+                for (Map.Entry<String, Integer> trialCount : featureCounts.getValue().entrySet()) {
+                    output.writeUTF(trialCount.getKey());
+                    output.writeInt(trialCount.getValue());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return outputStream.toByteArray();
+    }
+}
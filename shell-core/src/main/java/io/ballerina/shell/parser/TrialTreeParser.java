@@ -18,17 +18,75 @@
 
 package io.ballerina.shell.parser;
 
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.shell.exceptions.TreeParserException;
+import io.ballerina.shell.parser.trials.EmptyExpressionTrial;
+import io.ballerina.shell.parser.trials.ExpressionTrial;
+import io.ballerina.shell.parser.trials.GetErrorMessageTrial;
+import io.ballerina.shell.parser.trials.ImportDeclarationTrial;
+import io.ballerina.shell.parser.trials.ModuleMemberTrial;
+import io.ballerina.shell.parser.trials.ParserBusyException;
+import io.ballerina.shell.parser.trials.RejectInvalidStmtTrial;
+import io.ballerina.shell.parser.trials.StatementTrial;
+import io.ballerina.shell.parser.trials.TreeParserTrial;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
 /**
  * Parses the source code line using a trial based method.
  * The source code is placed in several places and is attempted to parse.
  * This continues until the correct type can be determined.
+ * <p>
+ * Trials are parsed in a small pool of threads owned by the parser, so that they can be timed out.
+ * Trials run one after the other, so one thread is enough unless a timed out parse is still running.
+ * Pool threads are daemons and die once idle, but the pool should be shut down when the parser is discarded.
+ * <p>
+ * A parse that timed out cannot be stopped, since the syntax tree API does not check for interruptions.
+ * Such parses keep their thread until they complete, so the number of running parses is bounded.
+ * If the bound is reached, the input is rejected as a whole.
+ * <p>
+ * Speculative parses (of inputs that are still being typed) run in a separate, smaller pool,
+ * so that parses of partial inputs can never keep the threads needed by the submitted inputs.
+ * Whether a parse is speculative is passed along to the trials, so a speculative parse
+ * may overlap with other parses of the same parser.
  */
 public abstract class TrialTreeParser extends TreeParser {
     protected static final long DEFAULT_TIMEOUT_MS = 100;
+    protected static final int MAX_PARSE_THREADS = 4;
+    protected static final int MAX_TIMED_OUT_TRIALS = 2;
+    protected static final int MAX_SPECULATIVE_PARSE_THREADS = MAX_TIMED_OUT_TRIALS;
+    private static final long PARSE_THREAD_KEEP_ALIVE_MS = 30_000;
+    private static final AtomicInteger parserIndex = new AtomicInteger(0);
+
     private final long timeOutDurationMs;
+    private final ParsePool parsePool;
+    private final ParsePool speculativeParsePool;
+    private final AtomicLong timedOutParses;
+    private final AtomicLong rejectedParses;
+    private final AtomicLong skippedTrials;
 
     public TrialTreeParser(long timeOutDurationMs) {
+        this(timeOutDurationMs, MAX_PARSE_THREADS, MAX_SPECULATIVE_PARSE_THREADS);
+    }
+
+    protected TrialTreeParser(long timeOutDurationMs, int maxParseThreads, int maxSpeculativeParseThreads) {
         this.timeOutDurationMs = timeOutDurationMs;
+        String threadName = "shell-tree-parser-" + parserIndex.incrementAndGet();
+        this.parsePool = new ParsePool(threadName, maxParseThreads);
+        this.speculativeParsePool = new ParsePool(threadName + "-speculative", maxSpeculativeParseThreads);
+        this.timedOutParses = new AtomicLong(0);
+        this.rejectedParses = new AtomicLong(0);
+        this.skippedTrials = new AtomicLong(0);
     }
 
     public static TrialTreeParser defaultParser() {
@@ -39,7 +97,201 @@ public abstract class TrialTreeParser extends TreeParser {
         return new SerialTreeParser(timeOutDurationMs);
     }
 
+    public static TrialTreeParser parallelParser(long timeOutDurationMs) {
+        return new ParallelTreeParser(timeOutDurationMs);
+    }
+
+    public static TrialTreeParser adaptiveParser(long timeOutDurationMs) {
+        return new AdaptiveTreeParser(timeOutDurationMs, TrialStatistics.sharedStatistics());
+    }
+
+    @Override
+    public Node parse(String statement) throws TreeParserException {
+        return parse(statement, false);
+    }
+
+    /**
+     * Parses an input that is still being typed.
+     * Trials are parsed in the speculative pool, so they do not use the threads of submitted inputs.
+     *
+     * @param statement Input source code statement.
+     * @return Syntax tree for the source code.
+     * @throws TreeParserException If the input could not be parsed.
+     */
+    @Override
+    public Node speculativeParse(String statement) throws TreeParserException {
+        return parse(statement, true);
+    }
+
+    /**
+     * Parses a source code string into a Node using the trials.
+     *
+     * @param source      Input source code statement.
+     * @param speculative Whether the input is still being typed.
+     * @return Syntax tree for the source code.
+     * @throws TreeParserException If the input could not be parsed.
+     */
+    protected abstract Node parse(String source, boolean speculative) throws TreeParserException;
+
+    /**
+     * Trials in the order of their priority.
+     * A statement is of the kind of the first trial that succeeds.
+     * The last trial never succeeds, it only finds the error message.
+     *
+     * @return Trials to attempt.
+     */
+    protected List<TreeParserTrial> defaultTrials() {
+        return List.of(
+                new ImportDeclarationTrial(this),
+                new RejectInvalidStmtTrial(this),
+                new ModuleMemberTrial(this),
+                new ExpressionTrial(this),
+                new StatementTrial(this),
+                new EmptyExpressionTrial(this),
+                new GetErrorMessageTrial(this)
+        );
+    }
+
+    /**
+     * Starts a parse of a submitted input in the parse threads of this parser.
+     *
+     * @param task Parse to run.
+     * @param <T>  Type of the parse result.
+     * @return Future of the parse result.
+     * @throws ParserBusyException If all the parse threads are busy or the parser was shut down.
+     */
+    public <T> Future<T> submitParse(Callable<T> task) {
+        return submitParse(task, false);
+    }
+
+    /**
+     * Starts a parse in the parse threads of this parser.
+     * Parses of a speculative parse are started in the speculative parse threads.
+     *
+     * @param task        Parse to run.
+     * @param speculative Whether the input is still being typed.
+     * @param <T>         Type of the parse result.
+     * @return Future of the parse result.
+     * @throws ParserBusyException If all the parse threads are busy or the parser was shut down.
+     */
+    public <T> Future<T> submitParse(Callable<T> task, boolean speculative) {
+        ParsePool pool = speculative ? speculativeParsePool : parsePool;
+        try {
+            return pool.submit(task);
+        } catch (RejectedExecutionException e) {
+            if (pool.isShutdown()) {
+                throw new ParserBusyException("Tree parser was shut down.");
+            }
+            rejectedParses.incrementAndGet();
+            throw new ParserBusyException("Tree parser is busy with timed out inputs.");
+        }
+    }
+
+    /**
+     * Abandons a parse that did not complete in time.
+     * The parse is interrupted, but it will keep running until it completes.
+     *
+     * @param future Future of the parse.
+     */
+    public void parseTimedOut(Future<?> future) {
+        future.cancel(true);
+        timedOutParses.incrementAndGet();
+    }
+
+    /**
+     * Records trials that were not attempted because the input was given up on.
+     *
+     * @param count Number of skipped trials.
+     */
+    protected void trialsSkipped(int count) {
+        skippedTrials.addAndGet(count);
+    }
+
+    @Override
+    public List<String> statistics() {
+        return List.of(
+                String.format("(parses timed out) %s", timedOutParses.get()),
+                String.format("(parses running) %s", parsePool.runningParses() + speculativeParsePool.runningParses()),
+                String.format("(parses rejected) %s", rejectedParses.get()),
+                String.format("(trials skipped) %s", skippedTrials.get()));
+    }
+
+    @Override
+    public void shutdown() {
+        parsePool.shutdown();
+        speculativeParsePool.shutdown();
+    }
+
     public long getTimeOutDurationMs() {
         return timeOutDurationMs;
     }
+
+    /**
+     * Threads that run the parses, with a bound on the number of parses running at once.
+     * The bound is checked on the running parses instead of the threads, since a thread that
+     * just completed a parse may not be ready to take the next one yet.
+     * Threads are created on demand and die once idle.
+     */
+    private static class ParsePool {
+        private final ThreadPoolExecutor executor;
+        private final AtomicInteger runningParses;
+        private final int maxParses;
+
+        private ParsePool(String threadName, int maxParses) {
+            this.executor = new ThreadPoolExecutor(1, 2 * maxParses,
+                    PARSE_THREAD_KEEP_ALIVE_MS, TimeUnit.MILLISECONDS, new SynchronousQueue<>(), runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.executor.allowCoreThreadTimeOut(true);
+            this.runningParses = new AtomicInteger(0);
+            this.maxParses = maxParses;
+        }
+
+        private <T> Future<T> submit(Callable<T> task) {
+            if (runningParses.incrementAndGet() > maxParses) {
+                runningParses.decrementAndGet();
+                throw new RejectedExecutionException("Too many parses are running.");
+            }
+            // The parse stops running before its result is seen, so the next parse may start right away.
+            // A parse cancelled before it started is still run (without running the task) by the thread.
+            AtomicBoolean started = new AtomicBoolean(false);
+            FutureTask<T> parse = new FutureTask<>(() -> {
+                started.set(true);
+                try {
+                    return task.call();
+                } finally {
+                    runningParses.decrementAndGet();
+                }
+            }) {
+                @Override
+                public void run() {
+                    super.run();
+                    if (!started.get()) {
+                        runningParses.decrementAndGet();
+                    }
+                }
+            };
+            try {
+                executor.execute(parse);
+                return parse;
+            } catch (RejectedExecutionException e) {
+                runningParses.decrementAndGet();
+                throw e;
+            }
+        }
+
+        private int runningParses() {
+            return runningParses.get();
+        }
+
+        private boolean isShutdown() {
+            return executor.isShutdown();
+        }
+
+        private void shutdown() {
+            executor.shutdownNow();
+        }
+    }
 }
@@ -32,16 +32,19 @@ public abstract class DualTreeParserTrial extends TreeParserTrial {
     }
 
     @Override
-    public Node parse(String source) throws ParserTrialFailedException {
+    public Node parse(String source, boolean speculative) throws ParserTrialFailedException {
         try {
-            return parseSource(source);
+            return parseSource(source, speculative);
+        } catch (ParserTrialTimedOutException | ParserTrialInterruptedException e) {
+            // Input without the semicolon would time out as well, and an interrupted trial is not needed
+            throw e;
         } catch (ParserTrialFailedException e) {
             if (source.endsWith(SEMICOLON)) {
-                return parseSource(source.substring(0, source.length() - 1));
+                return parseSource(source.substring(0, source.length() - 1), speculative);
             }
             throw e;
         }
     }
 
-    public abstract Node parseSource(String source) throws ParserTrialFailedException;
+    public abstract Node parseSource(String source, boolean speculative) throws ParserTrialFailedException;
 }
@@ -43,9 +43,9 @@ public class EmptyExpressionTrial extends TreeParserTrial {
     }
 
     @Override
-    public Node parse(String source) throws ParserTrialFailedException {
+    public Node parse(String source, boolean speculative) throws ParserTrialFailedException {
         TextDocument document = TextDocuments.from(source);
-        SyntaxTree tree = getSyntaxTree(document);
+        SyntaxTree tree = getSyntaxTree(document, speculative);
         ModulePartNode node = tree.rootNode();
         assertIf(node.members().isEmpty(), "expected no members");
         assertIf(node.imports().isEmpty(), "expected no imports");
@@ -32,10 +32,10 @@ public class ExpressionTrial extends StatementTrial {
     }
 
     @Override
-    public Node parse(String source) throws ParserTrialFailedException {
+    public Node parse(String source, boolean speculative) throws ParserTrialFailedException {
         // TODO: [Bug in Parser] a >>= 4 gets accepted as a >> 4
         String statementCode = String.format("return %s", source);
-        Node statement = super.parseSource(statementCode);
+        Node statement = super.parseSource(statementCode, speculative);
 
         assertIf(statement instanceof ReturnStatementNode, "expected a return statement");
         assert statement instanceof ReturnStatementNode;
@@ -29,8 +29,6 @@ import io.ballerina.tools.text.TextDocuments;
 
 import java.util.Set;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -49,19 +47,22 @@ public class GetErrorMessageTrial extends TreeParserTrial {
     }
 
     @Override
-    public Node parse(String source) throws ParserTrialFailedException {
-        ExecutorService executor = Executors.newFixedThreadPool(1);
-        Future<?> future = executor.submit(() -> processSource(source));
-        executor.shutdown();
+    public Node parse(String source, boolean speculative) throws ParserTrialFailedException {
+        Future<?> future = submitParse(() -> {
+            processSource(source);
+            return null;
+        }, speculative);
         try {
             future.get(getTimeOutDurationMs(), TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
-            throw new ParserTrialFailedException("Tree parsing was interrupted.");
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ParserTrialInterruptedException();
         } catch (ExecutionException e) {
             throw new ParserTrialFailedException("Tree parsing failed: " + e.getCause().getMessage());
         } catch (TimeoutException e) {
-            future.cancel(true);
-            throw new ParserTrialFailedException("Tree parsing was timed out.");
+            parentParser.parseTimedOut(future);
+            throw new ParserTrialTimedOutException();
         }
         throw new IllegalStateException("Unknown statement");
     }
@@ -39,12 +39,12 @@ public class ImportDeclarationTrial extends TreeParserTrial {
     }
 
     @Override
-    public Node parse(String source) throws ParserTrialFailedException {
+    public Node parse(String source, boolean speculative) throws ParserTrialFailedException {
         assertIf(source.trim().startsWith("import "), "expected to start with 'import'");
 
         try {
             TextDocument document = TextDocuments.from(source);
-            SyntaxTree tree = getSyntaxTree(document);
+            SyntaxTree tree = getSyntaxTree(document, speculative);
 
             ModulePartNode modulePartNode = tree.rootNode();
             NodeList<ImportDeclarationNode> imports = modulePartNode.imports();
@@ -40,9 +40,9 @@ public class ModuleMemberTrial extends DualTreeParserTrial {
     }
 
     @Override
-    public Node parseSource(String source) throws ParserTrialFailedException {
+    public Node parseSource(String source, boolean speculative) throws ParserTrialFailedException {
         TextDocument document = TextDocuments.from(source);
-        SyntaxTree tree = getSyntaxTree(document);
+        SyntaxTree tree = getSyntaxTree(document, speculative);
 
         ModulePartNode node = tree.rootNode();
         assertIf(!node.members().isEmpty(), "expected at least one member");
@@ -35,7 +35,7 @@ public class RejectInvalidStmtTrial extends TreeParserTrial {
     }
 
     @Override
-    public Node parse(String source) throws ParserTrialFailedException {
+    public Node parse(String source, boolean speculative) throws ParserTrialFailedException {
         if (source.trim().startsWith(DOCUMENTATION_START)) {
             throw new ParserRejectedException("Documentation is not allowed in the REPL.");
         } else if (source.trim().startsWith(PUBLIC_START)) {
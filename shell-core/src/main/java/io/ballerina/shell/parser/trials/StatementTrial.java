@@ -43,10 +43,10 @@ public class StatementTrial extends DualTreeParserTrial {
     }
 
     @Override
-    public Node parseSource(String source) throws ParserTrialFailedException {
+    public Node parseSource(String source, boolean speculative) throws ParserTrialFailedException {
         String sourceCode = String.format("function main(){%s}", source);
         TextDocument document = TextDocuments.from(sourceCode);
-        SyntaxTree tree = getSyntaxTree(document);
+        SyntaxTree tree = getSyntaxTree(document, speculative);
 
         ModulePartNode node = tree.rootNode();
         NodeList<ModuleMemberDeclarationNode> moduleDclns = node.members();
@@ -25,9 +25,8 @@ import io.ballerina.tools.diagnostics.Diagnostic;
 import io.ballerina.tools.diagnostics.DiagnosticSeverity;
 import io.ballerina.tools.text.TextDocument;
 
+import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
@@ -46,34 +45,38 @@ public abstract class TreeParserTrial {
      * Tries to parse the source into a syntax tree.
      * Returns null if failed.
      *
-     * @param source Input source statement.
+     * @param source      Input source statement.
+     * @param speculative Whether the input is still being typed.
      * @return Parsed syntax tree root node. Null if failed.
      * @throws ParserTrialFailedException If trial failed.
      */
-    public abstract Node parse(String source) throws ParserTrialFailedException;
+    public abstract Node parse(String source, boolean speculative) throws ParserTrialFailedException;
 
     /**
      * Creates and checks for errors in the syntax tree.
+     * If the trial is interrupted, the parse is cancelled and the interrupt is kept.
      *
-     * @param document Document to parse.
+     * @param document    Document to parse.
+     * @param speculative Whether the input is still being typed.
      * @return Created syntax tree.
      * @throws ParserTrialFailedException If tree contains errors.
      */
-    protected SyntaxTree getSyntaxTree(TextDocument document) throws ParserTrialFailedException {
-        ExecutorService executor = Executors.newFixedThreadPool(1);
-        Future<SyntaxTree> future = executor.submit(() -> SyntaxTree.from(document));
-        executor.shutdown();
+    protected SyntaxTree getSyntaxTree(TextDocument document, boolean speculative)
+            throws ParserTrialFailedException {
+        Future<SyntaxTree> future = submitParse(() -> SyntaxTree.from(document), speculative);
 
         SyntaxTree tree;
         try {
             tree = future.get(getTimeOutDurationMs(), TimeUnit.MILLISECONDS);
         } catch (InterruptedException e) {
-            throw new ParserTrialFailedException("Tree parsing was interrupted.");
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ParserTrialInterruptedException();
         } catch (ExecutionException e) {
             throw new ParserTrialFailedException("Executor failure because " + e.getCause().getMessage());
         } catch (TimeoutException e) {
-            future.cancel(true);
-            throw new ParserTrialFailedException("Tree parsing was timed out.");
+            parentParser.parseTimedOut(future);
+            throw new ParserTrialTimedOutException();
         }
 
         for (Diagnostic diagnostic : tree.diagnostics()) {
@@ -84,6 +87,24 @@ public abstract class TreeParserTrial {
         return tree;
     }
 
+    /**
+     * Starts a parse in the parse threads of the parent parser.
+     * A trial that was already interrupted does not start any parse.
+     *
+     * @param task        Parse to run.
+     * @param speculative Whether the input is still being typed.
+     * @param <T>         Type of the parse result.
+     * @return Future of the parse result.
+     * @throws ParserTrialInterruptedException If the trial was interrupted.
+     */
+    protected <T> Future<T> submitParse(Callable<T> task, boolean speculative)
+            throws ParserTrialInterruptedException {
+        if (Thread.currentThread().isInterrupted()) {
+            throw new ParserTrialInterruptedException();
+        }
+        return parentParser.submitParse(task, speculative);
+    }
+
     /**
      * Helper assertion to throw if condition is not satisfied.
      *
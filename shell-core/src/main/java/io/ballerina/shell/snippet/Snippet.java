@@ -18,10 +18,15 @@
 
 package io.ballerina.shell.snippet;
 
+import io.ballerina.compiler.syntax.tree.AssignmentStatementNode;
+import io.ballerina.compiler.syntax.tree.CompoundAssignmentStatementNode;
 import io.ballerina.compiler.syntax.tree.Node;
 import io.ballerina.compiler.syntax.tree.NodeVisitor;
 import io.ballerina.compiler.syntax.tree.QualifiedNameReferenceNode;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.compiler.syntax.tree.Token;
 import io.ballerina.compiler.syntax.tree.TreeModifier;
+import io.ballerina.shell.utils.StringUtils;
 
 import java.util.HashSet;
 import java.util.Set;
@@ -63,6 +68,50 @@ public abstract class Snippet {
         }
     }
 
+    /**
+     * A helper class to find all the identifiers used in a snippet.
+     * Identifiers are normalized so they can be compared with symbol names.
+     */
+    protected static class IdentifierFinder extends NodeVisitor {
+        private final Set<String> identifiers;
+
+        public IdentifierFinder(Set<String> identifiers) {
+            this.identifiers = identifiers;
+        }
+
+        @Override
+        public void visit(Token token) {
+            if (token.kind() == SyntaxKind.IDENTIFIER_TOKEN) {
+                identifiers.add(StringUtils.normalizedIdentifier(token.text()));
+            }
+        }
+    }
+
+    /**
+     * A helper class to find the identifiers that are assigned in a snippet.
+     * All the identifiers in the left hand side are taken,
+     * so the root of a field or member assignment is included as well.
+     */
+    protected static class AssignedNameFinder extends NodeVisitor {
+        private final Set<String> assignedNames;
+
+        public AssignedNameFinder(Set<String> assignedNames) {
+            this.assignedNames = assignedNames;
+        }
+
+        @Override
+        public void visit(AssignmentStatementNode assignmentStatementNode) {
+            super.visit(assignmentStatementNode);
+            assignmentStatementNode.varRef().accept(new IdentifierFinder(assignedNames));
+        }
+
+        @Override
+        public void visit(CompoundAssignmentStatementNode compoundAssignmentStatementNode) {
+            super.visit(compoundAssignmentStatementNode);
+            compoundAssignmentStatementNode.lhsExpression().accept(new IdentifierFinder(assignedNames));
+        }
+    }
+
     protected final SnippetSubKind subKind;
     protected Node rootNode;
 
@@ -82,6 +131,31 @@ public abstract class Snippet {
         return imports;
     }
 
+    /**
+     * Finds all the identifiers in this snippet.
+     * This is a superset of the names the snippet refers to,
+     * since field names, parameter names etc... are included as well.
+     *
+     * @return Set of all the normalized identifiers.
+     */
+    public Set<String> referencedNames() {
+        Set<String> identifiers = new HashSet<>();
+        rootNode.accept(new IdentifierFinder(identifiers));
+        return identifiers;
+    }
+
+    /**
+     * Finds all the identifiers that may be assigned by this snippet.
+     * Assignments nested in functions or blocks of the snippet are included.
+     *
+     * @return Set of the normalized identifiers that are assigned.
+     */
+    public Set<String> assignedNames() {
+        Set<String> assignedNames = new HashSet<>();
+        rootNode.accept(new AssignedNameFinder(assignedNames));
+        return assignedNames;
+    }
+
     /**
      * Kind is the category of the snippet.
      * This determines the position where the snippet will go.
@@ -92,6 +166,10 @@ public abstract class Snippet {
         return subKind.getKind();
     }
 
+    public SnippetSubKind getSubKind() {
+        return subKind;
+    }
+
     /**
      * Modifies the tree of the snippet.
      *
@@ -18,12 +18,25 @@
 
 package io.ballerina.shell.snippet.types;
 
+import io.ballerina.compiler.syntax.tree.AnnotationDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ClassDefinitionNode;
+import io.ballerina.compiler.syntax.tree.ConstantDeclarationNode;
 import io.ballerina.compiler.syntax.tree.EnumDeclarationNode;
+import io.ballerina.compiler.syntax.tree.EnumMemberNode;
+import io.ballerina.compiler.syntax.tree.FunctionDefinitionNode;
+import io.ballerina.compiler.syntax.tree.ListenerDeclarationNode;
 import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
+import io.ballerina.compiler.syntax.tree.ModuleXMLNamespaceDeclarationNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.Token;
+import io.ballerina.compiler.syntax.tree.TypeDefinitionNode;
 import io.ballerina.shell.snippet.Snippet;
 import io.ballerina.shell.snippet.SnippetSubKind;
+import io.ballerina.shell.utils.StringUtils;
 
+import java.util.HashSet;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Module level declarations. These are not active or runnable.
@@ -45,4 +58,77 @@ public class ModuleMemberDeclarationSnippet extends Snippet {
         }
         return Optional.empty();
     }
+
+    /**
+     * Name of the declared symbol as found from the syntax tree.
+     * Will be empty if the declaration does not have a name. (eg: default xml namespaces)
+     *
+     * @return Normalized name of the declaration.
+     */
+    public Optional<String> declaredName() {
+        Token nameToken;
+        if (rootNode instanceof FunctionDefinitionNode) {
+            nameToken = ((FunctionDefinitionNode) rootNode).functionName();
+        } else if (rootNode instanceof ClassDefinitionNode) {
+            nameToken = ((ClassDefinitionNode) rootNode).className();
+        } else if (rootNode instanceof TypeDefinitionNode) {
+            nameToken = ((TypeDefinitionNode) rootNode).typeName();
+        } else if (rootNode instanceof ConstantDeclarationNode) {
+            nameToken = ((ConstantDeclarationNode) rootNode).variableName();
+        } else if (rootNode instanceof ListenerDeclarationNode) {
+            nameToken = ((ListenerDeclarationNode) rootNode).variableName();
+        } else if (rootNode instanceof AnnotationDeclarationNode) {
+            nameToken = ((AnnotationDeclarationNode) rootNode).annotationTag();
+        } else if (rootNode instanceof EnumDeclarationNode) {
+            nameToken = ((EnumDeclarationNode) rootNode).identifier();
+        } else if (rootNode instanceof ModuleXMLNamespaceDeclarationNode
+                && ((ModuleXMLNamespaceDeclarationNode) rootNode).namespacePrefix().isPresent()) {
+            nameToken = ((ModuleXMLNamespaceDeclarationNode) rootNode).namespacePrefix().get();
+        } else {
+            return Optional.empty();
+        }
+        if (nameToken.isMissing()) {
+            return Optional.empty();
+        }
+        return Optional.of(StringUtils.normalizedIdentifier(nameToken.text()));
+    }
+
+    /**
+     * Names of the enum members. Will be empty if this is not an enum.
+     * Enum members are constants that can be referred without the enum name.
+     *
+     * @return Normalized names of the enum members.
+     */
+    public Set<String> enumMemberNames() {
+        Set<String> memberNames = new HashSet<>();
+        if (rootNode instanceof EnumDeclarationNode) {
+            for (Node member : ((EnumDeclarationNode) rootNode).enumMemberList()) {
+                if (member instanceof EnumMemberNode) {
+                    String memberName = ((EnumMemberNode) member).identifier().text();
+                    memberNames.add(StringUtils.normalizedIdentifier(memberName));
+                }
+            }
+        }
+        return memberNames;
+    }
+
+    /**
+     * Whether the declaration only has an effect when it is referred by its name.
+     * Listeners and XML namespaces take effect without being referred by an identifier.
+     *
+     * @return Whether the declaration can be left out if it is not referred.
+     */
+    public boolean isReferredByName() {
+        switch (subKind) {
+            case FUNCTION_DEFINITION:
+            case TYPE_DEFINITION:
+            case CONSTANT_DECLARATION:
+            case ANNOTATION_DECLARATION:
+            case ENUM_DECLARATION:
+            case CLASS_DEFINITION:
+                return true;
+            default:
+                return false;
+        }
+    }
 }
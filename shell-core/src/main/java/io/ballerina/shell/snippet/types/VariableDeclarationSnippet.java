@@ -18,15 +18,168 @@
 
 package io.ballerina.shell.snippet.types;
 
+import io.ballerina.compiler.syntax.tree.BasicLiteralNode;
+import io.ballerina.compiler.syntax.tree.CaptureBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.ExpressionNode;
+import io.ballerina.compiler.syntax.tree.FieldBindingPatternVarnameNode;
 import io.ballerina.compiler.syntax.tree.ModuleVariableDeclarationNode;
+import io.ballerina.compiler.syntax.tree.Node;
+import io.ballerina.compiler.syntax.tree.NodeVisitor;
+import io.ballerina.compiler.syntax.tree.OptionalTypeDescriptorNode;
+import io.ballerina.compiler.syntax.tree.RestBindingPatternNode;
+import io.ballerina.compiler.syntax.tree.SyntaxKind;
+import io.ballerina.compiler.syntax.tree.Token;
+import io.ballerina.compiler.syntax.tree.UnaryExpressionNode;
 import io.ballerina.shell.snippet.SnippetSubKind;
+import io.ballerina.shell.utils.StringUtils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * These will be variable declarations.
  * Currently only module level variable declarations are accepted.
  */
 public class VariableDeclarationSnippet extends ExecutableSnippet {
+    /**
+     * Built-in types whose signature is the same wherever they are written.
+     */
+    private static final Map<SyntaxKind, String> SIMPLE_TYPES = Map.of(
+            SyntaxKind.INT_TYPE_DESC, "int",
+            SyntaxKind.BYTE_TYPE_DESC, "byte",
+            SyntaxKind.FLOAT_TYPE_DESC, "float",
+            SyntaxKind.DECIMAL_TYPE_DESC, "decimal",
+            SyntaxKind.STRING_TYPE_DESC, "string",
+            SyntaxKind.BOOLEAN_TYPE_DESC, "boolean",
+            SyntaxKind.JSON_TYPE_DESC, "json",
+            SyntaxKind.ANY_TYPE_DESC, "any",
+            SyntaxKind.ANYDATA_TYPE_DESC, "anydata",
+            SyntaxKind.ERROR_TYPE_DESC, "error");
+
+    /**
+     * A helper class to find the variable names bound by a binding pattern.
+     * The name token of each variable is kept so that its position can be found.
+     */
+    protected static class VariableNameFinder extends NodeVisitor {
+        private final Map<String, Token> nameTokens;
+
+        public VariableNameFinder(Map<String, Token> nameTokens) {
+            this.nameTokens = nameTokens;
+        }
+
+        @Override
+        public void visit(CaptureBindingPatternNode captureBindingPatternNode) {
+            addName(captureBindingPatternNode.variableName());
+        }
+
+        @Override
+        public void visit(RestBindingPatternNode restBindingPatternNode) {
+            addName(restBindingPatternNode.variableName().name());
+        }
+
+        @Override
+        public void visit(FieldBindingPatternVarnameNode fieldBindingPatternVarnameNode) {
+            addName(fieldBindingPatternVarnameNode.variableName().name());
+        }
+
+        private void addName(Token nameToken) {
+            nameTokens.putIfAbsent(StringUtils.normalizedIdentifier(nameToken.text()), nameToken);
+        }
+    }
+
     public VariableDeclarationSnippet(ModuleVariableDeclarationNode rootNode) {
         super(SnippetSubKind.VARIABLE_DECLARATION, rootNode);
     }
+
+    /**
+     * Names of the variables defined by this declaration.
+     * These are found from the binding pattern, so no compilation is needed.
+     * Names are given without the identifier quote.
+     *
+     * @return Set of defined variable names.
+     */
+    public Set<String> names() {
+        ModuleVariableDeclarationNode dclnNode = (ModuleVariableDeclarationNode) rootNode;
+        return bindingNameTokens(dclnNode.typedBindingPattern().bindingPattern()).keySet();
+    }
+
+    /**
+     * Name tokens of the variables bound by a binding pattern.
+     * Names are given without the identifier quote.
+     *
+     * @param bindingPattern Binding pattern to search.
+     * @return Map of variable names to their tokens, in the order of appearance.
+     */
+    public static Map<String, Token> bindingNameTokens(Node bindingPattern) {
+        Map<String, Token> nameTokens = new LinkedHashMap<>();
+        bindingPattern.accept(new VariableNameFinder(nameTokens));
+        return nameTokens;
+    }
+
+    /**
+     * Type of the variable if it can be known without compiling.
+     * This is possible for a single variable with a simple built-in type
+     * (or an optional of it), or for a {@code var} with a literal initializer.
+     * Whether the initializer matches the type is not checked.
+     *
+     * @return Type signature of the variable.
+     */
+    public Optional<String> syntacticType() {
+        ModuleVariableDeclarationNode dclnNode = (ModuleVariableDeclarationNode) rootNode;
+        if (dclnNode.typedBindingPattern().bindingPattern().kind() != SyntaxKind.CAPTURE_BINDING_PATTERN) {
+            return Optional.empty();
+        }
+
+        Node typeNode = dclnNode.typedBindingPattern().typeDescriptor();
+        if (typeNode.kind() == SyntaxKind.VAR_TYPE_DESC) {
+            return dclnNode.initializer().flatMap(this::literalType);
+        } else if (typeNode.kind() == SyntaxKind.OPTIONAL_TYPE_DESC) {
+            Node memberNode = ((OptionalTypeDescriptorNode) typeNode).typeDescriptor();
+            return simpleType(memberNode).map(type -> type + "?");
+        }
+        return simpleType(typeNode);
+    }
+
+    private Optional<String> simpleType(Node typeNode) {
+        String type = SIMPLE_TYPES.get(typeNode.kind());
+        if (type == null || !typeNode.toSourceCode().strip().equals(type)) {
+            return Optional.empty();
+        }
+        return Optional.of(type);
+    }
+
+    private Optional<String> literalType(ExpressionNode expressionNode) {
+        switch (expressionNode.kind()) {
+            case STRING_LITERAL:
+            case STRING_TEMPLATE_EXPRESSION:
+                return Optional.of("string");
+            case BOOLEAN_LITERAL:
+                return Optional.of("boolean");
+            case NUMERIC_LITERAL:
+                String literal = ((BasicLiteralNode) expressionNode).literalToken().text();
+                switch (((BasicLiteralNode) expressionNode).literalToken().kind()) {
+                    case DECIMAL_INTEGER_LITERAL_TOKEN:
+                    case HEX_INTEGER_LITERAL_TOKEN:
+                        return Optional.of("int");
+                    case DECIMAL_FLOATING_POINT_LITERAL_TOKEN:
+                        return Optional.of(literal.endsWith("d") || literal.endsWith("D") ? "decimal" : "float");
+                    case HEX_FLOATING_POINT_LITERAL_TOKEN:
+                        return Optional.of("float");
+                    default:
+                        return Optional.empty();
+                }
+            case UNARY_EXPRESSION:
+                UnaryExpressionNode unaryNode = (UnaryExpressionNode) expressionNode;
+                SyntaxKind operator = unaryNode.unaryOperator().kind();
+                if ((operator == SyntaxKind.MINUS_TOKEN || operator == SyntaxKind.PLUS_TOKEN)
+                        && unaryNode.expression().kind() == SyntaxKind.NUMERIC_LITERAL) {
+                    return literalType(unaryNode.expression());
+                }
+                return Optional.empty();
+            default:
+                return Optional.empty();
+        }
+    }
 }
@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.utils;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.function.UnaryOperator;
+
+/**
+ * Utility functions to manage files persisted by the shell.
+ * Static class.
+ */
+public class FileUtils {
+    public static final String SHELL_DIRECTORY_PROPERTY = "ballerina.shell.dir";
+    private static final String USER_HOME_PROPERTY = "user.home";
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+    private static final String LOCK_FILE_SUFFIX = ".lock";
+    private static final Object UPDATE_LOCK = new Object();
+
+    /**
+     * Directory where the shell persists data across sessions.
+     * Defaults to a directory in the user home.
+     * Can be overridden using the {@code ballerina.shell.dir} system property.
+     *
+     * @return Directory of shell data. This may not exist yet.
+     */
+    public static Path shellDirectory() {
+        String shellDirectory = System.getProperty(SHELL_DIRECTORY_PROPERTY);
+        if (shellDirectory != null) {
+            return Paths.get(shellDirectory);
+        }
+        return Paths.get(System.getProperty(USER_HOME_PROPERTY), ".ballerina", "shell");
+    }
+
+    /**
+     * Writes a file so that readers never see a partially written file.
+     * Content is written to a temp file in the same directory and then moved.
+     * Several processes may write the same file concurrently.
+     *
+     * @param target  File to write.
+     * @param content Content of the file.
+     * @throws IOException If writing failed.
+     */
+    public static void writeAtomically(Path target, byte[] content) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMP_FILE_SUFFIX);
+        try {
+            Files.write(tempFile, content);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Updates a file so that concurrent updates, even by other processes, are not lost.
+     * The file is read and written while holding a lock on a lock file next to it.
+     * Readers that do not take the lock still never see a partially written file.
+     *
+     * @param target File to update.
+     * @param update Function from the current content (empty if there is no file) to the new content.
+     * @throws IOException If reading or writing failed.
+     */
+    public static void updateAtomically(Path target, UnaryOperator<byte[]> update) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path lockFile = target.resolveSibling(target.getFileName() + LOCK_FILE_SUFFIX);
+        // File locks are held by the process, so threads of the same process are excluded separately
+        synchronized (UPDATE_LOCK) {
+            try (FileChannel channel = FileChannel.open(lockFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                FileLock lock = channel.lock();
+                try {
+                    byte[] content = Files.isRegularFile(target) ? Files.readAllBytes(target) : new byte[0];
+                    writeAtomically(target, update.apply(content));
+                } finally {
+                    lock.release();
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies a file so that readers never see a partially written file.
+     *
+     * @param source File to copy.
+     * @param target Destination of the copy.
+     * @throws IOException If copying failed.
+     */
+    public static void copyAtomically(Path source, Path target) throws IOException {
+        Files.createDirectories(target.getParent());
+        Path tempFile = Files.createTempFile(target.getParent(), target.getFileName().toString(), TEMP_FILE_SUFFIX);
+        try {
+            Files.copy(source, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+}
@@ -18,6 +18,12 @@
 
 package io.ballerina.shell.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Utility functions required by invokers.
  * Static class.
@@ -25,6 +31,9 @@ package io.ballerina.shell.utils;
 public class StringUtils {
     private static final int MAX_VAR_STRING_LENGTH = 78;
     private static final String QUOTE = "'";
+    private static final String HASH_ALGORITHM = "SHA-256";
+    private static final int ASCII_LIMIT = 128;
+    private static final Pattern ESCAPE_PATTERN = Pattern.compile("\\\\(?:u\\{([0-9a-fA-F]+)}|(.))");
 
     /**
      * Creates an quoted identifier to use for variable names.
@@ -39,6 +48,75 @@ public class StringUtils {
         return QUOTE + identifier;
     }
 
+    /**
+     * Converts an identifier to the form used by compiler symbols.
+     * The quote is removed and escapes (unicode code point escapes and
+     * characters escaped by a backslash, eg: {@code a\-b}) are replaced by the characters.
+     *
+     * @param identifier Identifier that may be quoted.
+     * @return Identifier without the quote.
+     */
+    public static String normalizedIdentifier(String identifier) {
+        String value = String.valueOf(identifier);
+        if (value.startsWith(QUOTE)) {
+            value = value.substring(QUOTE.length());
+        }
+        Matcher matcher = ESCAPE_PATTERN.matcher(value);
+        StringBuilder builder = new StringBuilder();
+        while (matcher.find()) {
+            String character = matcher.group(1) != null
+                    ? new String(Character.toChars(Integer.parseInt(matcher.group(1), 16)))
+                    : matcher.group(2);
+            matcher.appendReplacement(builder, Matcher.quoteReplacement(character));
+        }
+        matcher.appendTail(builder);
+        return builder.toString();
+    }
+
+    /**
+     * Converts an identifier of the form used by compiler symbols to a form that can be quoted in the source.
+     * This reverses {@link #normalizedIdentifier}: ASCII letters, digits, underscores and other letters
+     * are kept, other ASCII characters are escaped by a backslash and any other character by its code point.
+     *
+     * @param identifier Identifier without the quote.
+     * @return Identifier that is valid after a quote.
+     */
+    public static String escapedIdentifier(String identifier) {
+        StringBuilder builder = new StringBuilder();
+        identifier.codePoints().forEach(codePoint -> {
+            boolean asciiChar = codePoint < ASCII_LIMIT;
+            if (codePoint == '_' || (asciiChar ? Character.isLetterOrDigit(codePoint)
+                    : Character.isLetter(codePoint))) {
+                builder.appendCodePoint(codePoint);
+            } else if (asciiChar) {
+                builder.append('\\').appendCodePoint(codePoint);
+            } else {
+                builder.append("\\u{").append(Integer.toHexString(codePoint).toUpperCase()).append('}');
+            }
+        });
+        return builder.toString();
+    }
+
+    /**
+     * Hashes a string so it can be used as a content address.
+     *
+     * @param input String to hash.
+     * @return Hex string of the SHA-256 hash.
+     */
+    public static String hash(String input) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance(HASH_ALGORITHM);
+            byte[] hash = digest.digest(input.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hexString = new StringBuilder();
+            for (byte b : hash) {
+                hexString.append(String.format("%02x", b));
+            }
+            return hexString.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
     /**
      * Short a string to a certain length.
      *
@@ -3,11 +3,11 @@ module io.ballerina.shell {
     requires io.ballerina.parser;
     requires io.ballerina.tools.api;
     requires io.ballerina.lang;
-    requires freemarker;
 
     exports io.ballerina.shell.exceptions;
     exports io.ballerina.shell.invoker;
     exports io.ballerina.shell.invoker.classload;
+    exports io.ballerina.shell.invoker.classload.cache;
     exports io.ballerina.shell.invoker.classload.context;
     exports io.ballerina.shell.parser;
     exports io.ballerina.shell.parser.trials;
@@ -19,8 +19,13 @@
 package io.ballerina.shell.test;
 
 import com.google.gson.Gson;
+import io.ballerina.shell.exceptions.SnippetException;
+import io.ballerina.shell.exceptions.TreeParserException;
 import io.ballerina.shell.parser.TreeParser;
 import io.ballerina.shell.parser.TrialTreeParser;
+import io.ballerina.shell.snippet.Snippet;
+import io.ballerina.shell.snippet.factory.BasicSnippetFactory;
+import org.testng.Assert;
 
 import java.io.InputStream;
 import java.nio.charset.Charset;
@@ -35,6 +40,8 @@ public abstract class TestUtils {
     private static final String SPECIAL_DELIMITER = "\\A";
     private static final long TEST_TREE_PARSER_TIMEOUT_MS = 10000;
 
+    private static TreeParser snippetTreeParser;
+
     /**
      * Loads a JSON fie with the given class format.
      *
@@ -74,4 +81,36 @@ public abstract class TestUtils {
     public static long getTestTreeParserTimeoutMs() {
         return TEST_TREE_PARSER_TIMEOUT_MS;
     }
+
+    /**
+     * Creates a snippet of the given type from the source.
+     * All the snippets are parsed by the same tree parser,
+     * which has to be shut down by {@link #shutdownSnippetTreeParser()}.
+     *
+     * @param source       Source of the snippet.
+     * @param snippetClazz Class def of the expected snippet type.
+     * @param <T>          Type of the snippet.
+     * @return Created snippet.
+     * @throws TreeParserException If the source could not be parsed.
+     * @throws SnippetException    If the snippet could not be created.
+     */
+    public static synchronized <T extends Snippet> T createSnippet(String source, Class<T> snippetClazz)
+            throws TreeParserException, SnippetException {
+        if (snippetTreeParser == null) {
+            snippetTreeParser = getTestTreeParser();
+        }
+        Snippet snippet = new BasicSnippetFactory().createSnippet(snippetTreeParser.parse(source));
+        Assert.assertTrue(snippetClazz.isInstance(snippet), source);
+        return snippetClazz.cast(snippet);
+    }
+
+    /**
+     * Shuts down the tree parser used to create snippets, if one was created.
+     */
+    public static synchronized void shutdownSnippetTreeParser() {
+        if (snippetTreeParser != null) {
+            snippetTreeParser.shutdown();
+            snippetTreeParser = null;
+        }
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.test.unit;
+
+import io.ballerina.compiler.api.symbols.SymbolKind;
+import io.ballerina.shell.Diagnostic;
+import io.ballerina.shell.invoker.classload.ElevatedType;
+import io.ballerina.shell.invoker.classload.GlobalVariable;
+import io.ballerina.shell.invoker.classload.HashedSymbol;
+import io.ballerina.shell.invoker.classload.cache.ArtifactStore;
+import io.ballerina.shell.invoker.classload.cache.CompiledProgram;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Test class to test {@link ArtifactStore}.
+ */
+public class ArtifactStoreTest {
+    @Test
+    public void testStoreAndLoad() throws IOException {
+        Path directory = Files.createTempDirectory("artifacts-");
+        ArtifactStore store = new ArtifactStore(directory, Long.MAX_VALUE, "v1");
+        Path jar = createJar(10);
+        store.store("int x = 1;", "metadata".getBytes(StandardCharsets.UTF_8), jar);
+
+        Optional<byte[]> metadata = store.loadMetadata("int x = 1;");
+        Assert.assertTrue(metadata.isPresent());
+        Assert.assertEquals(new String(metadata.get(), StandardCharsets.UTF_8), "metadata");
+        Assert.assertTrue(store.jar("int x = 1;").isPresent());
+        Assert.assertTrue(store.loadMetadata("int x = 2;").isEmpty());
+        Assert.assertTrue(store.jar("int x = 2;").isEmpty());
+
+        // Another store with the same directory and version shares artifacts
+        ArtifactStore sharedStore = new ArtifactStore(directory, Long.MAX_VALUE, "v1");
+        Assert.assertTrue(sharedStore.loadMetadata("int x = 1;").isPresent());
+        // Another version does not see them
+        ArtifactStore otherStore = new ArtifactStore(directory, Long.MAX_VALUE, "v2");
+        Assert.assertTrue(otherStore.loadMetadata("int x = 1;").isEmpty());
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        Path directory = Files.createTempDirectory("artifacts-");
+        ArtifactStore store = new ArtifactStore(directory, 100, "v1");
+        store.store("a", new byte[10], createJar(40));
+        store.store("b", new byte[10], createJar(40));
+        Assert.assertTrue(store.loadMetadata("a").isPresent());
+        Assert.assertTrue(store.loadMetadata("b").isPresent());
+        store.store("c", new byte[10], createJar(40));
+        Assert.assertTrue(store.loadMetadata("a").isEmpty());
+        Assert.assertTrue(store.jar("a").isEmpty());
+        // Store is trimmed well below the limit, so that it is not walked on every store
+        Assert.assertTrue(store.loadMetadata("b").isEmpty());
+        Assert.assertTrue(store.loadMetadata("c").isPresent());
+        store.store("d", new byte[10], createJar(30));
+        Assert.assertTrue(store.loadMetadata("c").isPresent());
+        Assert.assertTrue(store.loadMetadata("d").isPresent());
+    }
+
+    @Test
+    public void testProgramMetadata() throws IOException {
+        Path jar = createJar(10);
+        GlobalVariable variable = new GlobalVariable("Person|'io:Error", "x", ElevatedType.ANY_ERROR,
+                Set.of("Person"), Set.of("io"));
+        HashedSymbol symbol = new HashedSymbol("x", SymbolKind.VARIABLE);
+        CompiledProgram program = new CompiledProgram("$_init", List.of(jar), jar, Set.of(variable),
+                Set.of(symbol), Map.of("'io", "ballerina/io"), List.of(Diagnostic.warn("unused")));
+
+        CompiledProgram loaded = CompiledProgram.fromMetadata(program.toMetadata(), jar);
+        Assert.assertEquals(loaded.getInitClassName(), "$_init");
+        Assert.assertEquals(loaded.getNewVariables(), Set.of(variable));
+        GlobalVariable loadedVariable = loaded.getNewVariables().iterator().next();
+        Assert.assertEquals(loadedVariable.getType(), "Person|'io:Error");
+        Assert.assertEquals(loadedVariable.getTypeNames(), Set.of("Person"));
+        Assert.assertEquals(loadedVariable.getImportPrefixes(), Set.of("io"));
+        Assert.assertEquals(loaded.getNewSymbols(), Set.of(symbol));
+        Assert.assertEquals(loaded.getImplicitImports(), Map.of("'io", "ballerina/io"));
+        Assert.assertEquals(loaded.getWarnings().get(0).getMessage(), "unused");
+    }
+
+    private Path createJar(int size) throws IOException {
+        Path jar = Files.createTempFile("module-", ".jar");
+        Files.write(jar, new byte[size]);
+        return jar;
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.test.unit;
+
+import io.ballerina.shell.invoker.classload.cache.CompiledProgram;
+import io.ballerina.shell.invoker.classload.cache.CompiledProgramCache;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Test class to test {@link CompiledProgramCache}.
+ */
+public class CompiledProgramCacheTest {
+    @Test
+    public void testHitAndMiss() throws IOException {
+        CompiledProgramCache cache = new CompiledProgramCache();
+        Assert.assertTrue(cache.get("int x = 1;").isEmpty());
+        CompiledProgram program = createProgram(cache, 10);
+        cache.put("int x = 1;", program);
+        Assert.assertEquals(cache.get("int x = 1;").orElse(null), program);
+        Assert.assertTrue(cache.get("int x = 2;").isEmpty());
+        Assert.assertEquals(cache.getHits(), 1);
+        Assert.assertEquals(cache.getMisses(), 2);
+    }
+
+    @Test
+    public void testEvictionByEntries() throws IOException {
+        CompiledProgramCache cache = new CompiledProgramCache(2, Long.MAX_VALUE);
+        cache.put("a", createProgram(cache, 10));
+        cache.put("b", createProgram(cache, 10));
+        // Access a so that b is the least recently used
+        Assert.assertTrue(cache.get("a").isPresent());
+        cache.put("c", createProgram(cache, 10));
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertEquals(cache.getEvictions(), 1);
+        Assert.assertTrue(cache.get("a").isPresent());
+        Assert.assertTrue(cache.get("b").isEmpty());
+        Assert.assertTrue(cache.get("c").isPresent());
+    }
+
+    @Test
+    public void testEvictionByBytes() throws IOException {
+        CompiledProgramCache cache = new CompiledProgramCache(10, 25);
+        cache.put("a", createProgram(cache, 10));
+        cache.put("b", createProgram(cache, 10));
+        Assert.assertEquals(cache.size(), 2);
+        cache.put("c", createProgram(cache, 10));
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertTrue(cache.get("a").isEmpty());
+        cache.put("d", createProgram(cache, 100));
+        // The newest program is kept even if it exceeds the limit
+        Assert.assertEquals(cache.size(), 1);
+        Assert.assertTrue(cache.get("d").isPresent());
+    }
+
+    @Test
+    public void testClear() throws IOException {
+        CompiledProgramCache cache = new CompiledProgramCache();
+        CompiledProgram program = createProgram(cache, 10);
+        cache.put("a", program);
+        cache.clear();
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertTrue(cache.get("a").isEmpty());
+    }
+
+    @Test
+    public void testClassLoaderReuse() throws IOException {
+        CompiledProgramCache cache = new CompiledProgramCache(1, Long.MAX_VALUE);
+        CompiledProgram program = createProgram(cache, 10);
+        try (URLClassLoader parent = new URLClassLoader(new URL[0]);
+             URLClassLoader otherParent = new URLClassLoader(new URL[0])) {
+            ClassLoader classLoader = program.classLoader(parent);
+            Assert.assertSame(program.classLoader(parent), classLoader);
+            Assert.assertNotSame(program.classLoader(otherParent), classLoader);
+        }
+
+        // Evicted program closes its loader and removes its jar
+        cache.put("a", program);
+        cache.put("b", createProgram(cache, 10));
+        Assert.assertFalse(Files.exists(program.getModuleJar()));
+    }
+
+    private CompiledProgram createProgram(CompiledProgramCache cache, int size) throws IOException {
+        Path jar = Files.createTempFile("module-", ".jar");
+        Files.write(jar, new byte[size]);
+        Path retainedJar = cache.retainJar(jar);
+        Files.delete(jar);
+        return new CompiledProgram("$_init", List.of(), retainedJar, Set.of(), Set.of(), Map.of(), List.of());
+    }
+}
@@ -67,6 +67,23 @@ public class EvaluatorMiscTest {
         Assert.assertTrue(evaluator.availableModuleDeclarations().isEmpty());
     }
 
+    @Test
+    public void testEvaluatorBatchedImports() throws BallerinaShellException {
+        Evaluator evaluator = new EvaluatorBuilder().build();
+        evaluator.initialize();
+        evaluator.evaluate("import ballerina/lang.'int as prefix; import ballerina/lang.'float as prefix2;");
+        Assert.assertEquals(new HashSet<>(evaluator.availableImports()),
+                Set.of(
+                        "('java) import ballerina/'java as 'java;",
+                        "('prefix) import ballerina/'lang.'int as 'prefix;",
+                        "('prefix2) import ballerina/'lang.'float as 'prefix2;"
+                )
+        );
+        Assert.assertThrows(BallerinaShellException.class,
+                () -> evaluator.evaluate("import ballerina/lang.'string as prefix3; import abc/notfound as prefix4;"));
+        Assert.assertEquals(evaluator.availableImports().size(), 4);
+    }
+
     @Test
     public void testEvaluatorVarDclns() throws BallerinaShellException {
         Evaluator evaluator = new EvaluatorBuilder().build();
@@ -109,4 +126,14 @@ public class EvaluatorMiscTest {
         Assert.assertEquals(evaluator.availableImports().size(), 1);
         Assert.assertTrue(evaluator.availableVariables().isEmpty());
     }
+
+    @Test
+    public void testStaleSpeculation() throws BallerinaShellException {
+        Evaluator evaluator = new EvaluatorBuilder().build();
+        evaluator.initialize();
+        Assert.assertFalse(evaluator.speculate("int i = 4;", () -> true));
+        Assert.assertTrue(evaluator.speculate("int i = 4;", () -> false));
+        Assert.assertEquals(evaluator.evaluate("int i = 4; i"), "4");
+        Assert.assertEquals(evaluator.availableVariables().size(), 1);
+    }
 }
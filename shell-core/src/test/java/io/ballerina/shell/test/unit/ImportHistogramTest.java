@@ -0,0 +1,88 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.shell.test.unit;
+
+import io.ballerina.shell.invoker.classload.cache.ImportHistogram;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Test class to test {@link ImportHistogram}.
+ */
+public class ImportHistogramTest {
+    @Test
+    public void testMostFrequent() throws IOException {
+        Path histogramFile = Files.createTempDirectory("imports-").resolve("histogram.counts");
+        ImportHistogram histogram = new ImportHistogram(histogramFile);
+        Assert.assertTrue(histogram.mostFrequent(3).isEmpty());
+        histogram.record("ballerina/io");
+        histogram.record("ballerina/'lang.'string");
+        histogram.record("ballerina/io");
+        histogram.record("ballerina/time");
+        histogram.record("ballerina/'lang.'string");
+        histogram.record("ballerina/io");
+        histogram.record("ballerina/http");
+        Assert.assertEquals(histogram.mostFrequent(3),
+                List.of("ballerina/io", "ballerina/'lang.'string", "ballerina/http"));
+
+        // Counts are kept across sessions
+        ImportHistogram nextHistogram = new ImportHistogram(histogramFile);
+        nextHistogram.record("ballerina/time");
+        nextHistogram.record("ballerina/time");
+        Assert.assertEquals(nextHistogram.mostFrequent(2), List.of("ballerina/io", "ballerina/time"));
+    }
+
+    @Test
+    public void testConcurrentSessions() throws Exception {
+        Path histogramFile = Files.createTempDirectory("imports-").resolve("histogram.counts");
+        ImportHistogram histogram = new ImportHistogram(histogramFile);
+        ImportHistogram otherHistogram = new ImportHistogram(histogramFile);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<?> records = executor.submit(() -> record(histogram, "ballerina/io", 50));
+            Future<?> otherRecords = executor.submit(() -> record(otherHistogram, "ballerina/time", 40));
+            records.get();
+            otherRecords.get();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // No update of either session is lost
+        histogram.record("ballerina/http");
+        for (int i = 0; i < 40; i++) {
+            otherHistogram.record("ballerina/http");
+        }
+        Assert.assertEquals(histogram.mostFrequent(3), List.of("ballerina/io", "ballerina/http", "ballerina/time"));
+    }
+
+    private static Void record(ImportHistogram histogram, String moduleName, int times) throws IOException {
+        for (int i = 0; i < times; i++) {
+            histogram.record(moduleName);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.shell.test.unit;
+
+import io.ballerina.shell.invoker.classload.cache.ImportResolutionCache;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Test class to test {@link ImportResolutionCache}.
+ */
+public class ImportResolutionCacheTest {
+    private static final String FINGERPRINT = "repository";
+    private static final String CHANGED_FINGERPRINT = "changed-repository";
+
+    @Test
+    public void testStoreAndLoad() throws IOException {
+        Path cacheFile = Files.createTempDirectory("imports-").resolve("test.imports");
+        ImportResolutionCache cache = new ImportResolutionCache(cacheFile);
+        Assert.assertEquals(cache.resolution("ballerina/io", FINGERPRINT), Optional.empty());
+        cache.store("ballerina/io", true, FINGERPRINT);
+        cache.store("ballerina/missing", false, FINGERPRINT);
+        Assert.assertTrue(Files.exists(cacheFile));
+        Assert.assertEquals(cache.resolution("ballerina/io", FINGERPRINT), Optional.of(true));
+        Assert.assertEquals(cache.resolution("ballerina/missing", FINGERPRINT), Optional.of(false));
+
+        // A new cache loads from the file
+        ImportResolutionCache loadedCache = new ImportResolutionCache(cacheFile);
+        Assert.assertEquals(loadedCache.resolution("ballerina/io", FINGERPRINT), Optional.of(true));
+        Assert.assertEquals(loadedCache.resolution("ballerina/missing", FINGERPRINT), Optional.of(false));
+        Assert.assertEquals(loadedCache.resolution("ballerina/time", FINGERPRINT), Optional.empty());
+    }
+
+    @Test
+    public void testChangedRepository() throws IOException {
+        Path cacheFile = Files.createTempDirectory("imports-").resolve("test.imports");
+        ImportResolutionCache cache = new ImportResolutionCache(cacheFile);
+        cache.store("ballerina/io", true, FINGERPRINT);
+        cache.store("ballerina/missing", false, FINGERPRINT);
+
+        // Modules missing from an earlier repository may have been pulled since
+        Assert.assertEquals(cache.resolution("ballerina/io", CHANGED_FINGERPRINT), Optional.of(true));
+        Assert.assertEquals(cache.resolution("ballerina/missing", CHANGED_FINGERPRINT), Optional.empty());
+        cache.store("ballerina/missing", true, CHANGED_FINGERPRINT);
+        Assert.assertEquals(new ImportResolutionCache(cacheFile).resolution("ballerina/missing", FINGERPRINT),
+                Optional.of(true));
+    }
+
+    @Test
+    public void testConcurrentSessions() throws IOException {
+        Path cacheFile = Files.createTempDirectory("imports-").resolve("test.imports");
+        ImportResolutionCache cache = new ImportResolutionCache(cacheFile);
+        ImportResolutionCache otherCache = new ImportResolutionCache(cacheFile);
+        Assert.assertEquals(cache.resolution("ballerina/io", FINGERPRINT), Optional.empty());
+        Assert.assertEquals(otherCache.resolution("ballerina/io", FINGERPRINT), Optional.empty());
+        cache.store("ballerina/io", true, FINGERPRINT);
+        otherCache.store("ballerina/time", true, FINGERPRINT);
+        otherCache.store("ballerina/missing", false, FINGERPRINT);
+
+        // Outcomes of neither session are lost
+        ImportResolutionCache loadedCache = new ImportResolutionCache(cacheFile);
+        Assert.assertEquals(loadedCache.resolution("ballerina/io", FINGERPRINT), Optional.of(true));
+        Assert.assertEquals(loadedCache.resolution("ballerina/time", FINGERPRINT), Optional.of(true));
+        Assert.assertEquals(loadedCache.resolution("ballerina/missing", FINGERPRINT), Optional.of(false));
+    }
+
+    @Test
+    public void testUnreadableFile() throws IOException {
+        Path cacheFile = Files.createTempFile("test-", ".imports");
+        Files.write(cacheFile, new byte[]{1, 2});
+        ImportResolutionCache cache = new ImportResolutionCache(cacheFile);
+        Assert.assertEquals(cache.resolution("ballerina/io", FINGERPRINT), Optional.empty());
+        cache.store("ballerina/io", true, FINGERPRINT);
+        Assert.assertEquals(new ImportResolutionCache(cacheFile).resolution("ballerina/io", FINGERPRINT),
+                Optional.of(true));
+    }
+}
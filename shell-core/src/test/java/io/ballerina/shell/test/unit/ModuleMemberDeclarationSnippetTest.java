@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.test.unit;
+
+import io.ballerina.shell.snippet.types.ModuleMemberDeclarationSnippet;
+import io.ballerina.shell.test.TestUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Test class to test {@link ModuleMemberDeclarationSnippet}.
+ */
+public class ModuleMemberDeclarationSnippetTest {
+    @Test
+    public void testDeclaredName() throws Exception {
+        Assert.assertEquals(declaration("function add(int a) returns int { return a; }").declaredName(),
+                Optional.of("add"));
+        Assert.assertEquals(declaration("class Person { };").declaredName(), Optional.of("Person"));
+        Assert.assertEquals(declaration("type Age int;").declaredName(), Optional.of("Age"));
+        Assert.assertEquals(declaration("const int 'limit = 3;").declaredName(), Optional.of("limit"));
+        Assert.assertEquals(declaration("annotation tag;").declaredName(), Optional.of("tag"));
+        Assert.assertEquals(declaration("xmlns \"http://example.com\" as ns;").declaredName(), Optional.of("ns"));
+        Assert.assertEquals(declaration("xmlns \"http://example.com\";").declaredName(), Optional.empty());
+    }
+
+    @Test
+    public void testEnumNames() throws Exception {
+        ModuleMemberDeclarationSnippet snippet = declaration("enum Color { RED, GREEN };");
+        Assert.assertEquals(snippet.declaredName(), Optional.of("Color"));
+        Assert.assertEquals(snippet.enumMemberNames(), Set.of("RED", "GREEN"));
+    }
+
+    @AfterClass
+    public void shutdownParser() {
+        TestUtils.shutdownSnippetTreeParser();
+    }
+
+    private ModuleMemberDeclarationSnippet declaration(String source) throws Exception {
+        return TestUtils.createSnippet(source, ModuleMemberDeclarationSnippet.class);
+    }
+}
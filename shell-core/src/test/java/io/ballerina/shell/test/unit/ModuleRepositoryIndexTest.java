@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package io.ballerina.shell.test.unit;
+
+import io.ballerina.shell.invoker.classload.cache.ModuleRepositoryIndex;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Test class to test {@link ModuleRepositoryIndex}.
+ */
+public class ModuleRepositoryIndexTest {
+    private static final String INT_SOURCE = "public function abs(int n) returns int { return n; }\n"
+            + "function hidden() {}\n"
+            + "public const MAX = 10;\n"
+            + "public enum Sign { PLUS, MINUS }\n"
+            + "type Internal int;\n";
+
+    @Test
+    public void testIndex() throws IOException {
+        Path baloDirectory = Files.createTempDirectory("balo-");
+        writeBalo(baloDirectory, "ballerina", "lang.int", "1.1.0", INT_SOURCE);
+        writeBalo(baloDirectory, "ballerina", "java", "0.9.0", "public type Class handle;\n");
+        ModuleRepositoryIndex index = new ModuleRepositoryIndex(baloDirectory, Files.createTempDirectory("index-"));
+
+        ModuleRepositoryIndex.IndexedModule module = index.module("ballerina", "'lang.'int").orElseThrow();
+        Assert.assertEquals(module.getVersions(), Set.of("1.1.0"));
+        Assert.assertEquals(module.getPublicSymbols(), Set.of("abs", "MAX", "Sign", "PLUS", "MINUS"));
+        Assert.assertEquals(module.defaultPrefix(), "int");
+        Assert.assertEquals(index.modules().size(), 2);
+
+        Assert.assertEquals(index.resolution("ballerina/'lang.'int"), Optional.of(true));
+        Assert.assertEquals(index.resolution("ballerina/java"), Optional.of(true));
+        Assert.assertEquals(index.resolution("ballerina/lang.'missing"), Optional.of(false));
+        Assert.assertTrue(index.resolution("ballerina/io").isEmpty());
+        Assert.assertTrue(index.resolution("abc/def").isEmpty());
+    }
+
+    @Test
+    public void testRefreshAndReload() throws IOException {
+        Path baloDirectory = Files.createTempDirectory("balo-");
+        Path indexDirectory = Files.createTempDirectory("index-");
+        writeBalo(baloDirectory, "ballerina", "lang.int", "1.1.0", INT_SOURCE);
+        ModuleRepositoryIndex index = new ModuleRepositoryIndex(baloDirectory, indexDirectory, 0);
+        ModuleRepositoryIndex rateLimitedIndex = new ModuleRepositoryIndex(baloDirectory, indexDirectory);
+        Assert.assertEquals(index.modules().size(), 1);
+        Assert.assertEquals(rateLimitedIndex.modules().size(), 1);
+
+        // Changed repository is indexed again, once the refresh interval has passed
+        writeBalo(baloDirectory, "ballerina", "lang.float", "1.0.0", "public function abs(float n) {}\n");
+        Assert.assertTrue(index.module("ballerina", "lang.float").isPresent());
+        Assert.assertTrue(rateLimitedIndex.module("ballerina", "lang.float").isEmpty());
+
+        // A new index loads from the index file without building
+        ModuleRepositoryIndex loadedIndex = new ModuleRepositoryIndex(baloDirectory, indexDirectory);
+        Assert.assertEquals(loadedIndex.modules().size(), 2);
+        Assert.assertTrue(loadedIndex.statistics().contains("(index builds) 0"));
+    }
+
+    @Test
+    public void testMissingRepository() throws IOException {
+        ModuleRepositoryIndex index = new ModuleRepositoryIndex(null, Files.createTempDirectory("index-"));
+        Assert.assertTrue(index.modules().isEmpty());
+        Assert.assertTrue(index.resolution("ballerina/lang.'int").isEmpty());
+    }
+
+    private static void writeBalo(Path baloDirectory, String orgName, String moduleName,
+                                  String version, String source) throws IOException {
+        Path versionDirectory = Files.createDirectories(baloDirectory.resolve(orgName)
+                .resolve(moduleName).resolve(version));
+        Path baloFile = versionDirectory.resolve(String.format("%s-%s-any-%s.balo", orgName, moduleName, version));
+        try (OutputStream outputStream = Files.newOutputStream(baloFile);
+             ZipOutputStream zipStream = new ZipOutputStream(outputStream)) {
+            zipStream.putNextEntry(new ZipEntry(String.format("modules/%s/%s.bal", moduleName, moduleName)));
+            zipStream.write(source.getBytes(StandardCharsets.UTF_8));
+            zipStream.closeEntry();
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.test.unit;
+
+import io.ballerina.shell.exceptions.SnippetException;
+import io.ballerina.shell.exceptions.TreeParserException;
+import io.ballerina.shell.invoker.classload.ElevatedType;
+import io.ballerina.shell.invoker.classload.GlobalVariable;
+import io.ballerina.shell.invoker.classload.ReferenceGraph;
+import io.ballerina.shell.snippet.Snippet;
+import io.ballerina.shell.snippet.types.ModuleMemberDeclarationSnippet;
+import io.ballerina.shell.test.TestUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Test class to test {@link ReferenceGraph}.
+ */
+public class ReferenceGraphTest {
+    private static final GlobalVariable X = new GlobalVariable("int", "'x", ElevatedType.NONE);
+    private static final GlobalVariable P = new GlobalVariable("Person", "'p", ElevatedType.NONE,
+            Set.of("Person"), Set.of());
+    private static final GlobalVariable C = new GlobalVariable("'io:ReadableCharacterChannel", "'c",
+            ElevatedType.NONE, Set.of(), Set.of("io"));
+
+    @Test
+    public void testUnreferencedIsLeftOut() throws Exception {
+        ReferenceGraph graph = new ReferenceGraph();
+        graph.addDeclaration("add", declaration("function add(int a) returns int { return a + x; }"));
+        graph.addDeclaration("Person", declaration("type Person record { string name; };"));
+
+        ReferenceGraph.Selection selection = graph.select(snippet("1 + 1;"), List.of(X, P, C));
+        Assert.assertTrue(selection.getDeclarationKeys().isEmpty());
+        Assert.assertTrue(selection.getVariables().isEmpty());
+        Assert.assertTrue(selection.getImportPrefixes().isEmpty());
+    }
+
+    @Test
+    public void testTransitiveReferences() throws Exception {
+        ReferenceGraph graph = new ReferenceGraph();
+        graph.addDeclaration("add", declaration("function add(int a) returns int { return a + x; }"));
+        graph.addDeclaration("Person", declaration("type Person record { string name; };"));
+
+        ReferenceGraph.Selection selection = graph.select(snippet("add(2);"), List.of(X, P, C));
+        Assert.assertEquals(selection.getDeclarationKeys(), Set.of("add"));
+        Assert.assertEquals(selection.getVariables(), Set.of(X));
+
+        selection = graph.select(snippet("p.name;"), List.of(X, P, C));
+        Assert.assertEquals(selection.getDeclarationKeys(), Set.of("Person"));
+        Assert.assertEquals(selection.getVariables(), Set.of(P));
+    }
+
+    @Test
+    public void testAssignedVariables() throws Exception {
+        ReferenceGraph graph = new ReferenceGraph();
+        graph.addDeclaration("inc", declaration("function inc() { x += 1; }"));
+
+        ReferenceGraph.Selection selection = graph.select(snippet("p.name = \"Jane\";"), List.of(X, P, C));
+        Assert.assertTrue(selection.isAssigned(P));
+        Assert.assertFalse(selection.isAssigned(X));
+
+        selection = graph.select(snippet("inc();"), List.of(X, P, C));
+        Assert.assertTrue(selection.isAssigned(X));
+
+        selection = graph.select(snippet("x + 1;"), List.of(X, P, C));
+        Assert.assertEquals(selection.getVariables(), Set.of(X));
+        Assert.assertFalse(selection.isAssigned(X));
+    }
+
+    @Test
+    public void testImportPrefixes() throws Exception {
+        ReferenceGraph graph = new ReferenceGraph();
+        graph.addDeclaration("print", declaration("function print() { io:println(1); }"));
+
+        ReferenceGraph.Selection selection = graph.select(snippet("c;"), List.of(X, P, C));
+        Assert.assertEquals(selection.getVariables(), Set.of(C));
+        Assert.assertEquals(selection.getImportPrefixes(), Set.of("io"));
+
+        selection = graph.select(snippet("print();"), List.of(X, P, C));
+        Assert.assertEquals(selection.getImportPrefixes(), Set.of("io"));
+    }
+
+    @Test
+    public void testVariableTypeReferences() throws Exception {
+        ReferenceGraph graph = new ReferenceGraph();
+        graph.addDeclaration("name", declaration("function name() returns string { return \"\"; }"));
+        graph.addDeclaration("Signed32", declaration("type Signed32 int;"));
+        GlobalVariable r = new GlobalVariable("record {| string name; 'int:Signed32 count; |}", "r",
+                ElevatedType.ANY, Set.of(), Set.of("int"));
+
+        ReferenceGraph.Selection selection = graph.select(snippet("r;"), List.of(X, r));
+        Assert.assertEquals(selection.getVariables(), Set.of(r));
+        Assert.assertTrue(selection.getDeclarationKeys().isEmpty());
+        Assert.assertEquals(selection.getImportPrefixes(), Set.of("int"));
+    }
+
+    @Test
+    public void testEnumMembersAndPinnedDeclarations() throws Exception {
+        ReferenceGraph graph = new ReferenceGraph();
+        graph.addDeclaration("Color", declaration("enum Color { RED, GREEN };"));
+        graph.addDeclaration("ns", declaration("xmlns \"http://example.com\" as ns;"));
+
+        ReferenceGraph.Selection selection = graph.select(snippet("RED;"), List.of());
+        Assert.assertEquals(selection.getDeclarationKeys(), Set.of("Color", "ns"));
+
+        graph.clear();
+        selection = graph.select(snippet("RED;"), List.of());
+        Assert.assertTrue(selection.getDeclarationKeys().isEmpty());
+    }
+
+    @Test
+    public void testDependentsOfNewDeclaration() throws Exception {
+        ReferenceGraph graph = new ReferenceGraph();
+        graph.addDeclaration("add", declaration("function add(int a) returns int { return a + x; }"));
+        graph.addDeclaration("g", declaration("function g() returns int { return add(1); }"));
+        graph.addDeclaration("h", declaration("function h() returns int { return g(); }"));
+        graph.addDeclaration("Person", declaration("type Person record { string name; };"));
+
+        ModuleMemberDeclarationSnippet newAdd = declaration("function add(string s) returns int { return 0; }");
+        Assert.assertFalse(graph.select(newAdd, List.of(X, P, C)).getDeclarationKeys().contains("g"));
+
+        ReferenceGraph.Selection selection = graph.selectWithDependents(newAdd, List.of(X, P, C));
+        Assert.assertEquals(selection.getDeclarationKeys(), Set.of("add", "g", "h"));
+        Assert.assertEquals(selection.getVariables(), Set.of(X));
+    }
+
+    @AfterClass
+    public void shutdownParser() {
+        TestUtils.shutdownSnippetTreeParser();
+    }
+
+    private Snippet snippet(String source) throws TreeParserException, SnippetException {
+        return TestUtils.createSnippet(source, Snippet.class);
+    }
+
+    private ModuleMemberDeclarationSnippet declaration(String source)
+            throws TreeParserException, SnippetException {
+        return TestUtils.createSnippet(source, ModuleMemberDeclarationSnippet.class);
+    }
+}
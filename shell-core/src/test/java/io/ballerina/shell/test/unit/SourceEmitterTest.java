@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.test.unit;
+
+import io.ballerina.shell.invoker.classload.ElevatedType;
+import io.ballerina.shell.invoker.classload.GlobalVariable;
+import io.ballerina.shell.invoker.classload.SourceEmitter;
+import io.ballerina.shell.invoker.classload.context.ClassLoadContext;
+import io.ballerina.shell.invoker.classload.context.VariableContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+
+/**
+ * Test class to test {@link SourceEmitter}.
+ */
+public class SourceEmitterTest {
+    @Test
+    public void testImport() {
+        ClassLoadContext context = new ClassLoadContext("id", List.of("import ballerina/io;"));
+        String source = new SourceEmitter().emitImport(context);
+        Assert.assertEquals(source, "import ballerina/io;\n\npublic function main(){\n}\n");
+    }
+
+    @Test
+    public void testImportEndLines() {
+        List<String> imports = List.of("import ballerina/io;", "// Strings\nimport ballerina/lang.'string\n    as str;",
+                "import ballerina/math; // Math\n");
+        String[] lines = new SourceEmitter().emitImport(new ClassLoadContext("id", imports)).split("\n", -1);
+        List<Integer> endLines = SourceEmitter.importEndLines(imports);
+        Assert.assertEquals(endLines, List.of(0, 3, 5));
+        Assert.assertEquals(lines[3], "    as str;");
+        Assert.assertEquals(lines[4], "import ballerina/math; // Math");
+    }
+
+    @Test
+    public void testDeclaration() {
+        List<VariableContext> varDclns = List.of(
+                VariableContext.oldVar(new GlobalVariable("int|error", "x", ElevatedType.ANY_ERROR)),
+                VariableContext.oldVar(new GlobalVariable("any", "y", ElevatedType.ANY)),
+                VariableContext.newVar("z"));
+        ClassLoadContext context = new ClassLoadContext("id", List.of("import ballerina/io;"),
+                List.of("const A = 1;"), varDclns, "int z = 3;");
+        String source = new SourceEmitter().emitDeclaration(context);
+        Assert.assertEquals(source, "    import ballerina/io;\n" +
+                "\n" +
+                "    const A = 1;\n" +
+                "\n" +
+                "function printerr(any|error value) { }\n" +
+                "function println(any|error... values) { }\n" +
+                "function recall_h(string name) returns any|error { }\n" +
+                "function memorize_h(string name, any|error value) { }\n" +
+                "function sprintf(string template, any|error... values) returns string { return \"\"; }\n" +
+                "\n" +
+                "int|error 'x = // value\n" +
+                "<int|error> recall_h(\"x\");\n" +
+                "any 'y = // value\n" +
+                "<any> checkpanic recall_h(\"x\");\n" +
+                "\n" +
+                "public function main() returns error? {\n" +
+                "    // Redefine to restrict user\n" +
+                "    int|error 'x = // value\n" +
+                "    <int|error> recall_h(\"x\");\n" +
+                "    any 'y = // value\n" +
+                "    <any> checkpanic recall_h(\"x\");\n" +
+                "\n" +
+                "    int z = 3;\n" +
+                "\n" +
+                "    _ = java:JavaClassNotFoundError;\n" +
+                "}\n");
+    }
+
+    @Test
+    public void testExecution() {
+        List<VariableContext> varDclns = List.of(
+                VariableContext.oldVar(new GlobalVariable("string", "x", ElevatedType.NONE)),
+                VariableContext.newVar("y"));
+        ClassLoadContext context = new ClassLoadContext("id", List.of(), List.of(), varDclns, "int y = 1;");
+        String source = new SourceEmitter().emitExecution(context);
+        Assert.assertTrue(source.startsWith("\nhandle context_id = currentContextId();\n"));
+        Assert.assertTrue(source.contains("function sprintfh(handle template, any|error... values) " +
+                "returns handle = @java:Method {\n    name: \"sprintf\",\n    'class: \""));
+        Assert.assertTrue(source.contains("// Variable declarations\n" +
+                "string 'x = <string> checkpanic recall_h(\"'x\");\n\n"));
+        Assert.assertTrue(source.contains("function run() returns @untainted any|error {\n" +
+                "    return trap (\n        ()\n    );\n}\n"));
+        Assert.assertTrue(source.contains("    int y = 1;\n" +
+                "    memorize_h(\"expr\", expr);\n" +
+                "    memorize_h(\"'x\", 'x);\n" +
+                "    memorize_h(\"'y\", 'y);\n"));
+        Assert.assertTrue(source.endsWith("public function main() returns error? {\n" +
+                "    any|error expr = trap stmts();\n" +
+                "     if (expr is error){\n" +
+                "        printerr(expr);\n" +
+                "        return expr;\n" +
+                "    }\n" +
+                "}\n"));
+    }
+
+    @Test
+    public void testExecutionUnassignedVariable() {
+        List<VariableContext> varDclns = List.of(
+                VariableContext.oldVar(new GlobalVariable("string", "x", ElevatedType.NONE), false),
+                VariableContext.oldVar(new GlobalVariable("int", "z", ElevatedType.NONE), true));
+        ClassLoadContext context = new ClassLoadContext("id", List.of(), List.of(), varDclns, null,
+                null);
+        String source = new SourceEmitter().emitExecution(context);
+        Assert.assertTrue(source.contains("string 'x = <string> checkpanic recall_h(\"'x\");\n"));
+        Assert.assertFalse(source.contains("memorize_h(\"'x\", 'x);"));
+        Assert.assertTrue(source.contains("memorize_h(\"'z\", 'z);"));
+    }
+
+    @Test
+    public void testExecutionEscapedVariable() {
+        List<VariableContext> varDclns = List.of(
+                VariableContext.oldVar(new GlobalVariable("string", "first name", ElevatedType.NONE)),
+                VariableContext.newVar("a-b"));
+        ClassLoadContext context = new ClassLoadContext("id", List.of(), List.of(), varDclns, "int a\\-b = 1;");
+        String source = new SourceEmitter().emitExecution(context);
+        Assert.assertTrue(source.contains(
+                "string 'first\\ name = <string> checkpanic recall_h(\"'first\\\\ name\");\n"));
+        Assert.assertTrue(source.contains("    memorize_h(\"'a\\\\-b\", 'a\\-b);\n"));
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.test.unit;
+
+import io.ballerina.compiler.api.symbols.SymbolKind;
+import io.ballerina.shell.invoker.classload.HashedSymbol;
+import io.ballerina.shell.invoker.classload.cache.StartupSnapshot;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Test class to test {@link StartupSnapshot}.
+ */
+public class StartupSnapshotTest {
+    @Test
+    public void testSaveAndLoad() throws IOException {
+        Path snapshotFile = Files.createTempDirectory("snapshots-").resolve("test.snapshot");
+        Set<HashedSymbol> symbols = Set.of(new HashedSymbol("x", SymbolKind.VARIABLE),
+                new HashedSymbol("f", SymbolKind.FUNCTION));
+        StartupSnapshot snapshot = new StartupSnapshot(snapshotFile);
+        Assert.assertTrue(snapshot.knownSymbols("init").isEmpty());
+        snapshot.save("init", symbols);
+        Assert.assertTrue(Files.exists(snapshotFile));
+        Assert.assertEquals(snapshot.knownSymbols("init").orElseThrow(), symbols);
+
+        // A new snapshot loads from the file
+        StartupSnapshot loadedSnapshot = new StartupSnapshot(snapshotFile);
+        Optional<Set<HashedSymbol>> loadedSymbols = loadedSnapshot.knownSymbols("init");
+        Assert.assertEquals(loadedSymbols.orElseThrow(), symbols);
+        // But not for a different initial program
+        Assert.assertTrue(loadedSnapshot.knownSymbols("other init").isEmpty());
+    }
+
+    @Test
+    public void testSnapshotKey() {
+        Assert.assertEquals(StartupSnapshot.snapshotKey("a", "1.0"), StartupSnapshot.snapshotKey("a", "1.0"));
+        Assert.assertNotEquals(StartupSnapshot.snapshotKey("a", "1.0"), StartupSnapshot.snapshotKey("a", "1.1"));
+        Assert.assertNotEquals(StartupSnapshot.snapshotKey("a", "1.0"), StartupSnapshot.snapshotKey("b", "1.0"));
+    }
+}
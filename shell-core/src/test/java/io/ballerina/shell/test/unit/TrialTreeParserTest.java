@@ -24,14 +24,22 @@ import io.ballerina.compiler.syntax.tree.ModuleMemberDeclarationNode;
 import io.ballerina.compiler.syntax.tree.Node;
 import io.ballerina.compiler.syntax.tree.StatementNode;
 import io.ballerina.shell.exceptions.TreeParserException;
+import io.ballerina.shell.parser.AdaptiveTreeParser;
 import io.ballerina.shell.parser.TreeParser;
+import io.ballerina.shell.parser.TrialStatistics;
+import io.ballerina.shell.parser.TrialTreeParser;
 import io.ballerina.shell.test.TestUtils;
 import io.ballerina.shell.test.unit.base.TestCase;
 import io.ballerina.shell.test.unit.base.TestCases;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Test tree parser use cases.
@@ -74,9 +82,161 @@ public class TrialTreeParserTest {
         testParse(MISC_TESTCASES, Node.class);
     }
 
+    @Test
+    public void testParallelParse() {
+        TrialTreeParser treeParser = TrialTreeParser.parallelParser(TestUtils.getTestTreeParserTimeoutMs());
+        testParse(IMPORT_TESTCASES, ImportDeclarationNode.class, treeParser);
+        testParse(MODULE_DCLN_TESTCASES, ModuleMemberDeclarationNode.class, treeParser);
+        testParse(STATEMENT_TESTCASES, StatementNode.class, treeParser);
+        testParse(EXPRESSION_TESTCASES, ExpressionNode.class, treeParser);
+        testParse(MISC_TESTCASES, Node.class, treeParser);
+        treeParser.shutdown();
+    }
+
+    @Test
+    public void testAdaptiveParse() throws IOException, TreeParserException {
+        Path statisticsFile = Files.createTempFile("trial", ".statistics");
+        TrialStatistics statistics = new TrialStatistics(statisticsFile);
+        // Expressions being seen as statements must not change the classification
+        statistics.record(TrialStatistics.feature("x;"), "StatementTrial");
+        TrialTreeParser treeParser = new AdaptiveTreeParser(TestUtils.getTestTreeParserTimeoutMs(), statistics);
+        testParse(IMPORT_TESTCASES, ImportDeclarationNode.class, treeParser);
+        testParse(MODULE_DCLN_TESTCASES, ModuleMemberDeclarationNode.class, treeParser);
+        testParse(STATEMENT_TESTCASES, StatementNode.class, treeParser);
+        testParse(EXPRESSION_TESTCASES, ExpressionNode.class, treeParser);
+        testParse(MISC_TESTCASES, Node.class, treeParser);
+
+        // Inputs that are still being typed are not counted
+        int expressionCount = statistics.count(TrialStatistics.feature("1 + 2;"), "ExpressionTrial");
+        treeParser.speculativeParse("1 + 2;");
+        Assert.assertEquals(statistics.count(TrialStatistics.feature("1 + 2;"), "ExpressionTrial"), expressionCount);
+        treeParser.shutdown();
+        Files.deleteIfExists(statisticsFile);
+    }
+
+    @Test
+    public void testTrialStatistics() throws IOException {
+        Assert.assertEquals(TrialStatistics.feature("  int x = 1;"), "int;");
+        Assert.assertEquals(TrialStatistics.feature("f()"), "f");
+        Assert.assertEquals(TrialStatistics.feature("{\"a\": 1}"), "{");
+
+        Path statisticsFile = Files.createTempFile("trial", ".statistics");
+        TrialStatistics statistics = new TrialStatistics(statisticsFile);
+        statistics.record("int;", "StatementTrial");
+        statistics.record("int;", "StatementTrial");
+        statistics.record("int;", "ModuleMemberTrial");
+        Assert.assertEquals(statistics.count("int;", "StatementTrial"), 2);
+        Assert.assertEquals(statistics.count("int;", "ExpressionTrial"), 0);
+        statistics.save();
+
+        TrialStatistics loadedStatistics = new TrialStatistics(statisticsFile);
+        Assert.assertEquals(loadedStatistics.count("int;", "StatementTrial"), 2);
+        Assert.assertEquals(loadedStatistics.count("int;", "ModuleMemberTrial"), 1);
+
+        // Counts saved by another session are kept
+        statistics.record("int;", "StatementTrial");
+        loadedStatistics.record("int;", "StatementTrial");
+        loadedStatistics.record("x", "ExpressionTrial");
+        loadedStatistics.save();
+        statistics.save();
+        Assert.assertEquals(statistics.count("int;", "StatementTrial"), 4);
+        Assert.assertEquals(statistics.count("x", "ExpressionTrial"), 1);
+        Assert.assertEquals(new TrialStatistics(statisticsFile).count("int;", "StatementTrial"), 4);
+        Files.deleteIfExists(statisticsFile);
+    }
+
+    @Test
+    public void testParseThreadsAreReused() throws TreeParserException {
+        TreeParser treeParser = TestUtils.getTestTreeParser();
+        long threadsBefore = parserThreadCount();
+        for (int i = 0; i < 20; i++) {
+            treeParser.parse("int i" + i + " = " + i + ";");
+            treeParser.parse("function f" + i + "() {}");
+        }
+        // Without a shared pool, each trial would have started a thread of its own
+        Assert.assertTrue(parserThreadCount() - threadsBefore <= 4);
+        treeParser.shutdown();
+        Assert.assertThrows(TreeParserException.class, () -> treeParser.parse("int x = 1;"));
+    }
+
+    @Test
+    public void testGivesUpAfterTimeouts() {
+        TrialTreeParser treeParser = TrialTreeParser.defaultParser(0);
+        // Import and reject trials do not parse, so the module member and expression trials time out
+        String source = "int x = " + "1 + ".repeat(5000) + "1;";
+        Assert.assertThrows(TreeParserException.class, () -> treeParser.parse(source));
+        Assert.assertTrue(treeParser.statistics().contains("(parses timed out) 2"));
+        Assert.assertTrue(treeParser.statistics().contains("(trials skipped) 3"));
+        treeParser.shutdown();
+    }
+
+    @Test
+    public void testBusyParserRejectsInput() throws Exception {
+        TrialTreeParser treeParser = TrialTreeParser.defaultParser(TestUtils.getTestTreeParserTimeoutMs());
+        treeParser.parse("int x = 1;");
+        CountDownLatch stuckParses = new CountDownLatch(1);
+        for (int i = 0; i < 4; i++) {
+            treeParser.submitParse(() -> stuckParses.await(1, TimeUnit.MINUTES));
+        }
+
+        // Trials do not fall through to a later trial when the pool is busy
+        Assert.assertThrows(TreeParserException.class, () -> treeParser.parse("f();"));
+        Assert.assertTrue(treeParser.diagnostics().stream()
+                .anyMatch(diagnostic -> diagnostic.getMessage().contains("busy")));
+        Assert.assertTrue(treeParser.statistics().contains("(parses rejected) 1"));
+
+        // Speculative parses have threads of their own
+        Assert.assertTrue(treeParser.speculativeParse("f();") instanceof ExpressionNode);
+        stuckParses.countDown();
+        treeParser.shutdown();
+    }
+
+    @Test
+    public void testSpeculativeParsesOverlap() throws Exception {
+        Path statisticsFile = Files.createTempFile("trial", ".statistics");
+        TrialStatistics statistics = new TrialStatistics(statisticsFile);
+        TrialTreeParser treeParser = new AdaptiveTreeParser(TestUtils.getTestTreeParserTimeoutMs(), statistics);
+        CountDownLatch stuckParses = new CountDownLatch(1);
+        for (int i = 0; i < 2; i++) {
+            treeParser.submitParse(() -> stuckParses.await(1, TimeUnit.MINUTES), true);
+        }
+
+        // Speculative threads are busy, but submitted inputs are still parsed and counted
+        Assert.assertThrows(TreeParserException.class, () -> treeParser.speculativeParse("1 + 2;"));
+        Assert.assertTrue(treeParser.parse("1 + 2;") instanceof ExpressionNode);
+        Assert.assertEquals(statistics.count(TrialStatistics.feature("1 + 2;"), "ExpressionTrial"), 1);
+        stuckParses.countDown();
+        treeParser.shutdown();
+        Files.deleteIfExists(statisticsFile);
+    }
+
+    @Test
+    public void testInterruptedTrialsStartNoParses() {
+        TrialTreeParser treeParser = TrialTreeParser.defaultParser(TestUtils.getTestTreeParserTimeoutMs());
+        Thread.currentThread().interrupt();
+        try {
+            Assert.assertThrows(TreeParserException.class, () -> treeParser.parse("int x = 1;"));
+            Assert.assertTrue(Thread.currentThread().isInterrupted());
+            Assert.assertTrue(treeParser.diagnostics().stream()
+                    .anyMatch(diagnostic -> diagnostic.getMessage().contains("interrupted")));
+        } finally {
+            Thread.interrupted();
+            treeParser.shutdown();
+        }
+    }
+
+    private long parserThreadCount() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().startsWith("shell-tree-parser-"))
+                .count();
+    }
+
     private void testParse(String fileName, Class<?> parentClazz) {
+        testParse(fileName, parentClazz, TestUtils.getTestTreeParser());
+    }
+
+    private void testParse(String fileName, Class<?> parentClazz, TreeParser treeParser) {
         TestCases testCases = TestUtils.loadTestCases(fileName, TestCases.class);
-        TreeParser treeParser = TestUtils.getTestTreeParser();
         for (TestCase testCase : testCases) {
             try {
                 Node node = treeParser.parse(testCase.getInput());
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2020, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+
+package io.ballerina.shell.test.unit;
+
+import io.ballerina.shell.exceptions.SnippetException;
+import io.ballerina.shell.exceptions.TreeParserException;
+import io.ballerina.shell.snippet.types.VariableDeclarationSnippet;
+import io.ballerina.shell.test.TestUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Test class to test {@link VariableDeclarationSnippet}.
+ */
+public class VariableDeclarationSnippetTest {
+    @Test
+    public void testExplicitSyntacticType() throws Exception {
+        Assert.assertEquals(syntacticType("int x = 5;"), Optional.of("int"));
+        Assert.assertEquals(syntacticType("string s = \"a\";"), Optional.of("string"));
+        Assert.assertEquals(syntacticType("decimal? d = ();"), Optional.of("decimal?"));
+        Assert.assertEquals(syntacticType("json j = {};"), Optional.of("json"));
+        Assert.assertEquals(syntacticType("error e = error(\"a\");"), Optional.of("error"));
+        Assert.assertEquals(syntacticType("error? e = ();"), Optional.of("error?"));
+    }
+
+    @Test
+    public void testLiteralSyntacticType() throws Exception {
+        Assert.assertEquals(syntacticType("var x = 5;"), Optional.of("int"));
+        Assert.assertEquals(syntacticType("var x = -0x1F;"), Optional.of("int"));
+        Assert.assertEquals(syntacticType("var f = 1.5;"), Optional.of("float"));
+        Assert.assertEquals(syntacticType("var d = 1.5d;"), Optional.of("decimal"));
+        Assert.assertEquals(syntacticType("var s = string `a ${x}`;"), Optional.of("string"));
+        Assert.assertEquals(syntacticType("var b = true;"), Optional.of("boolean"));
+    }
+
+    @Test
+    public void testUnknownSyntacticType() throws Exception {
+        Assert.assertEquals(syntacticType("var x = f();"), Optional.empty());
+        Assert.assertEquals(syntacticType("Person p = {};"), Optional.empty());
+        Assert.assertEquals(syntacticType("int[] a = [];"), Optional.empty());
+        Assert.assertEquals(syntacticType("[int, int] [a, b] = [1, 2];"), Optional.empty());
+        Assert.assertEquals(syntacticType("int|error x = 1;"), Optional.empty());
+        Assert.assertEquals(syntacticType("error<map<string>> e = error(\"a\");"), Optional.empty());
+    }
+
+    @Test
+    public void testEscapedNames() throws Exception {
+        Assert.assertEquals(TestUtils.createSnippet("int a\\-b = 1;", VariableDeclarationSnippet.class).names(),
+                Set.of("a-b"));
+        Assert.assertEquals(TestUtils.createSnippet("int '\\{add\\#5\\} = 5;", VariableDeclarationSnippet.class)
+                .names(), Set.of("{add#5}"));
+        Assert.assertEquals(TestUtils.createSnippet("string 'unicode_\\u{2324} = \"a\";",
+                VariableDeclarationSnippet.class).names(), Set.of("unicode_\u2324"));
+    }
+
+    @AfterClass
+    public void shutdownParser() {
+        TestUtils.shutdownSnippetTreeParser();
+    }
+
+    private Optional<String> syntacticType(String source) throws TreeParserException, SnippetException {
+        return TestUtils.createSnippet(source, VariableDeclarationSnippet.class).syntacticType();
+    }
+}
@@ -31,6 +31,27 @@ import java.util.HashMap;
 public class InvokerMemory {
     private static final String QUOTE = "'";
     private static final HashMap<String, HashMap<String, Object>> memory = new HashMap<>();
+    private static volatile String currentContextId;
+
+    /**
+     * Sets the context id of the program that is going to be executed.
+     * Generated code reads this in module initialization, so the generated code
+     * does not depend on the context it is run in.
+     *
+     * @param contextId Context id.
+     */
+    public static void setCurrentContextId(String contextId) {
+        currentContextId = contextId;
+    }
+
+    /**
+     * Context id of the program that is being executed.
+     *
+     * @return Context id.
+     */
+    public static String currentContextId() {
+        return currentContextId;
+    }
 
     /**
      * Recalls the variable value.